@@ -0,0 +1,96 @@
+package org.reactome.server.tools.analysis.report.section;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Table;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.reactome.server.analysis.core.result.model.FoundEntity;
+import org.reactome.server.tools.analysis.report.style.PdfProfile;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Identifier tables of {@link Tables} with a growing number of identifiers.
+ * The create* benchmarks build the table in memory, as pathway details do. The
+ * stream* benchmarks lay it out into a document, as the identifiers found
+ * section does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class TablesBenchmark {
+
+	private static final String RESOURCE = "UniProt";
+	private static final List<String> COLUMNS = Arrays.asList("control 1", "control 2", "control 3", "treated 1", "treated 2", "treated 3");
+
+	@Param({"100", "10000", "100000"})
+	private int identifiers;
+
+	private PdfProfile profile;
+	private Collection<FoundEntity> entities;
+
+	@Setup
+	public void setUp() throws Exception {
+		profile = PdfProfile.load("breathe");
+		entities = createEntities(identifiers);
+	}
+
+	/**
+	 * FoundEntity has no public constructor for its fields, so entities are
+	 * created the same way the analysis service clients read them, from JSON.
+	 */
+	private static Collection<FoundEntity> createEntities(int n) {
+		final ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		final Random random = new Random(42);
+		final List<FoundEntity> entities = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			final Map<String, Object> map = new HashMap<>();
+			map.put("resource", RESOURCE);
+			map.put("ids", Collections.singletonList(String.format("P%05d", i)));
+			final List<Double> exp = new ArrayList<>();
+			for (int j = 0; j < COLUMNS.size(); j++) exp.add(random.nextGaussian());
+			final Map<String, Object> entity = new HashMap<>();
+			entity.put("id", String.format("GENE%06d", i));
+			entity.put("exp", exp);
+			entity.put("mapsTo", Collections.singletonList(map));
+			entities.add(mapper.convertValue(entity, FoundEntity.class));
+		}
+		return entities;
+	}
+
+	@Benchmark
+	public Table createEntitiesTable() {
+		return Tables.createEntitiesTable(entities, RESOURCE, profile);
+	}
+
+	@Benchmark
+	public Table createExpressionTable() {
+		return Tables.getExpressionTable(entities, RESOURCE, profile, COLUMNS);
+	}
+
+	@Benchmark
+	public int streamEntitiesTable() throws Exception {
+		try (Document document = new Document(new PdfDocument(new PdfWriter(NullOutputStream.NULL_OUTPUT_STREAM)))) {
+			final PdfProfile profile = PdfProfile.load("breathe");
+			Tables.addEntitiesTable(document, entities, RESOURCE, profile);
+			return document.getPdfDocument().getNumberOfPages();
+		}
+	}
+
+	@Benchmark
+	public int streamExpressionTable() throws Exception {
+		try (Document document = new Document(new PdfDocument(new PdfWriter(NullOutputStream.NULL_OUTPUT_STREAM)))) {
+			final PdfProfile profile = PdfProfile.load("breathe");
+			Tables.addExpressionTable(document, entities, RESOURCE, profile, COLUMNS);
+			return document.getPdfDocument().getNumberOfPages();
+		}
+	}
+}
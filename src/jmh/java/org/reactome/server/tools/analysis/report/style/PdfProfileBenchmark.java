@@ -0,0 +1,53 @@
+package org.reactome.server.tools.analysis.report.style;
+
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cell and paragraph factories of {@link PdfProfile}, called once per table
+ * cell or text block of a report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfProfileBenchmark {
+
+	private PdfProfile profile;
+	private int row;
+
+	@Setup
+	public void setUp() throws Exception {
+		profile = PdfProfile.load("breathe");
+	}
+
+	@Benchmark
+	public Cell bodyCell() {
+		return profile.getBodyCell("P60484", row++);
+	}
+
+	@Benchmark
+	public Cell headerCell() {
+		return profile.getHeaderCell("UniProt Id");
+	}
+
+	@Benchmark
+	public Paragraph paragraph() {
+		return profile.getParagraph("Signaling by Receptor Tyrosine Kinases");
+	}
+
+	@Benchmark
+	public Paragraph h3() {
+		return profile.getH3("12 submitted entities found in this pathway, mapping to 25 Reactome entities");
+	}
+
+	@Benchmark
+	public PdfProfile load() throws Exception {
+		return PdfProfile.load("breathe");
+	}
+}
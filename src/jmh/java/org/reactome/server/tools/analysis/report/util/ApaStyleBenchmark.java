@@ -0,0 +1,41 @@
+package org.reactome.server.tools.analysis.report.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itextpdf.layout.element.Text;
+import org.openjdk.jmh.annotations.*;
+import org.reactome.server.tools.analysis.report.metadata.PublicationMetadata;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ApaStyle#toApa(PublicationMetadata)} over literature references,
+ * books and urls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApaStyleBenchmark {
+
+	private List<PublicationMetadata> publications;
+	private int next;
+
+	@Setup
+	public void setUp() throws Exception {
+		try (InputStream resource = ApaStyleBenchmark.class.getResourceAsStream("publications.json")) {
+			publications = new ObjectMapper().readValue(resource, new TypeReference<List<PublicationMetadata>>() {
+			});
+		}
+	}
+
+	@Benchmark
+	public List<Text> toApa() {
+		next = (next + 1) % publications.size();
+		return ApaStyle.toApa(publications.get(next));
+	}
+}
@@ -0,0 +1,51 @@
+package org.reactome.server.tools.analysis.report.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itextpdf.layout.element.Paragraph;
+import org.openjdk.jmh.annotations.*;
+import org.reactome.server.tools.analysis.report.style.PdfProfile;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HtmlParser#parseText(PdfProfile, String)} over pathway summations,
+ * and {@link HtmlParser#parseSummation(PdfProfile, int, Long, String)}, which
+ * only parses each summation once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HtmlParserBenchmark {
+
+	private PdfProfile profile;
+	private List<String> summations;
+	private int next;
+
+	@Setup
+	public void setUp() throws Exception {
+		profile = PdfProfile.load("breathe");
+		try (InputStream resource = HtmlParserBenchmark.class.getResourceAsStream("summations.json")) {
+			summations = new ObjectMapper().readValue(resource, new TypeReference<List<String>>() {
+			});
+		}
+	}
+
+	@Benchmark
+	public Collection<Paragraph> parseText() {
+		next = (next + 1) % summations.size();
+		return HtmlParser.parseText(profile, summations.get(next));
+	}
+
+	@Benchmark
+	public Collection<Paragraph> parseSummation() {
+		next = (next + 1) % summations.size();
+		return HtmlParser.parseSummation(profile, 0, (long) next, summations.get(next));
+	}
+}
@@ -0,0 +1,47 @@
+package org.reactome.server.tools.analysis.report.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PdfUtils#formatNumber(Number)} over ratios, p-values and expression
+ * values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PdfUtilsBenchmark {
+
+	private static final int SIZE = 1024;
+
+	private final Double[] values = new Double[SIZE];
+	private int next;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(42);
+		for (int i = 0; i < SIZE; i++) {
+			switch (i % 3) {
+				case 0: // ratios
+					values[i] = random.nextDouble();
+					break;
+				case 1: // p-values
+					values[i] = Math.pow(10, -random.nextInt(20)) * random.nextDouble();
+					break;
+				default: // expression values
+					values[i] = random.nextGaussian() * 1000;
+			}
+		}
+	}
+
+	@Benchmark
+	public String formatNumber() {
+		next = (next + 1) & (SIZE - 1);
+		return PdfUtils.formatNumber(values[next]);
+	}
+}
@@ -3,16 +3,22 @@ package org.reactome.server.tools.analysis.report;
 import org.reactome.server.analysis.core.model.AnalysisType;
 import org.reactome.server.analysis.core.result.AnalysisStoredResult;
 import org.reactome.server.analysis.core.result.PathwayNodeSummary;
+import org.reactome.server.analysis.core.result.model.PathwayBase;
 import org.reactome.server.analysis.core.result.model.ResourceSummary;
-import org.reactome.server.graph.domain.model.Pathway;
-import org.reactome.server.graph.domain.model.Species;
-import org.reactome.server.graph.service.DatabaseObjectService;
-import org.reactome.server.graph.service.GeneralService;
-import org.reactome.server.graph.utils.ReactomeGraphCore;
+import org.reactome.server.tools.analysis.report.metadata.DiagramMetadata;
+import org.reactome.server.tools.analysis.report.metadata.PathwayMetadata;
+import org.reactome.server.tools.analysis.report.metadata.ReportMetadataProvider;
+import org.reactome.server.tools.analysis.report.metrics.ReportListener;
+import org.reactome.server.tools.analysis.report.metrics.ReportMonitor;
 
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -23,8 +29,6 @@ import java.util.stream.Collectors;
 public class AnalysisData {
 
 	private static final String DEFAULT_SERVER_NAME = "https://reactome.org";
-	private static GeneralService genericService = ReactomeGraphCore.getService(GeneralService.class);
-	private static DatabaseObjectService databaseObjectService = ReactomeGraphCore.getService(DatabaseObjectService.class);
 	private final AnalysisType type;
 	private final List<PathwayData> pathways;
 	private final String beautifiedResource;
@@ -40,8 +44,20 @@ public class AnalysisData {
 	private final Collection<String> resources;
 	private final String serverName;
 	private final boolean importableOnly;
+	private final String diagramProfile;
+	private final String analysisProfile;
+	private final String fireworksProfile;
+	private final ReportMetadataProvider metadataProvider;
+	private final ReportMonitor monitor;
+	private final int dbVersion;
+	private final LocalDate date;
+	private IdentifierIndex identifierIndex;
 
-	AnalysisData(AnalysisStoredResult result, String resource, Long speciesDbId, int maxPathways, boolean importableOnly) {
+	AnalysisData(ReportMetadataProvider metadataProvider, ReportMonitor monitor, AnalysisStoredResult result, String resource, Long speciesDbId, int maxPathways, boolean importableOnly, String diagramProfile, String analysisProfile, String fireworksProfile, LocalDate date) {
+		this.metadataProvider = metadataProvider;
+		this.date = date;
+		this.monitor = monitor;
+		this.dbVersion = lookup("dbVersion", metadataProvider::getDBVersion);
 		serverName = result.getSummary().getServer() == null
 				? DEFAULT_SERVER_NAME
 				: result.getSummary().getServer();
@@ -54,6 +70,9 @@ public class AnalysisData {
 		this.speciesComparisonSpecies = getSpeciesName(result.getSummary().getSpecies());
 		this.maxPathways = maxPathways;
 		this.importableOnly = importableOnly;
+		this.diagramProfile = diagramProfile;
+		this.analysisProfile = analysisProfile;
+		this.fireworksProfile = fireworksProfile;
 		this.name = computeName();
 		this.projection = result.getSummary().isProjection() != null && result.getSummary().isProjection();
 		this.interactors = result.getSummary().isInteractors() != null && result.getSummary().isInteractors();
@@ -67,23 +86,64 @@ public class AnalysisData {
 		pathways = collectPathways();
 	}
 
-	private static String getSpeciesName(Long id) {
+	private String getSpeciesName(Long id) {
 		if (id == null) return null;
-		Species species = databaseObjectService.findByIdNoRelations(id);
-		return species.getDisplayName();
+		return lookup("species", () -> metadataProvider.getSpeciesName(id));
 	}
 
+	/**
+	 * Every access to the metadata provider is measured.
+	 */
+	private <T> T lookup(String name, Supplier<T> supplier) {
+		final ReportMonitor.Timer timer = monitor.start(ReportListener.Stage.METADATA, name);
+		try {
+			return supplier.get();
+		} finally {
+			timer.stop();
+		}
+	}
+
+	/**
+	 * Diagrams of all of the pathways are fetched in bulk, before rendering
+	 * starts. Pathway metadata (summations, references...) is fetched by
+	 * {@link #getPathwayMetadata(Collection)} when the pathway details are
+	 * rendered.
+	 */
 	private List<PathwayData> collectPathways() {
-		return result.filterBySpecies(speciesDbId, resource, importableOnly).getPathways().stream()
+		final List<PathwayBase> bases = result.filterBySpecies(speciesDbId, resource, importableOnly).getPathways().stream()
 				.limit(maxPathways)
-				.map(base -> {
-					final PathwayNodeSummary summary = result.getPathway(base.getStId());
-					final Pathway pathway = databaseObjectService.findByIdNoRelations(base.getStId());
-					return (new PathwayData(summary, base, pathway));
-				})
+				.collect(Collectors.toList());
+		final List<String> stIds = bases.stream().map(PathwayBase::getStId).collect(Collectors.toList());
+		final Map<String, DiagramMetadata> diagrams = lookup("diagrams", () -> metadataProvider.getDiagrams(stIds));
+		return bases.stream()
+				.map(base -> new PathwayData(result.getPathway(base.getStId()), base, diagrams.get(base.getStId())))
 				.collect(Collectors.toList());
 	}
 
+	/**
+	 * Fetches, in one call to the metadata provider, the metadata of the
+	 * pathways in stIds. Can be called from any thread.
+	 *
+	 * @return a map stId to metadata, with an entry for every stId
+	 */
+	public Map<String, PathwayMetadata> getPathwayMetadata(Collection<String> stIds) {
+		final Map<String, PathwayMetadata> pathways = new HashMap<>(lookup("pathways", () -> metadataProvider.getPathways(stIds)));
+		for (String stId : stIds)
+			pathways.computeIfAbsent(stId, id -> fallback(result.getPathway(id)));
+		return pathways;
+	}
+
+	/**
+	 * Pathways missing from the metadata provider (e.g. a fixture that does
+	 * not cover the whole result) are rendered with the data in the result.
+	 */
+	private static PathwayMetadata fallback(PathwayNodeSummary summary) {
+		final PathwayMetadata pathway = new PathwayMetadata();
+		pathway.setStId(summary.getStId());
+		pathway.setDisplayName(summary.getName());
+		return pathway;
+	}
+
 	private String computeName() {
 		for (String alternative : new String[]{
 				result.getSummary().getSampleName(),
@@ -97,7 +157,7 @@ public class AnalysisData {
 	}
 
 	private String beautify(String resource) {
-		switch (resource.toUpperCase()) {
+		switch (resource.toUpperCase(Locale.ENGLISH)) {
 			case "UNIPROT":
 				return "UniProt";
 			case "CHEBI":
@@ -122,8 +182,15 @@ public class AnalysisData {
 	/**
 	 * @return Reactome's current database version.
 	 */
-	public static int getDBVersion() {
-		return genericService.getDBInfo().getVersion();
+	public int getDBVersion() {
+		return dbVersion;
+	}
+
+	/**
+	 * @return the date shown as analysis date in the report
+	 */
+	public LocalDate getDate() {
+		return date;
 	}
 
 	public AnalysisStoredResult getResult() {
@@ -179,7 +246,43 @@ public class AnalysisData {
 		return resources;
 	}
 
+	/**
+	 * The index is computed the first time it is requested, and then shared by
+	 * all of the sections of the report.
+	 *
+	 * @return found entities and interactors of the analysis, by resource and
+	 * by pathway
+	 */
+	public synchronized IdentifierIndex getIdentifierIndex() {
+		if (identifierIndex == null) {
+			final List<String> stIds = pathways.stream()
+					.map(pathwayData -> pathwayData.getBase().getStId())
+					.collect(Collectors.toList());
+			identifierIndex = new IdentifierIndex(result, resources, stIds, interactors);
+		}
+		return identifierIndex;
+	}
+
 	public String getServerName() {
 		return serverName;
 	}
+
+	/**
+	 * @return the monitor measuring this report
+	 */
+	public ReportMonitor getMonitor() {
+		return monitor;
+	}
+
+	public String getDiagramProfile() {
+		return diagramProfile;
+	}
+
+	public String getAnalysisProfile() {
+		return analysisProfile;
+	}
+
+	public String getFireworksProfile() {
+		return fireworksProfile;
+	}
 }
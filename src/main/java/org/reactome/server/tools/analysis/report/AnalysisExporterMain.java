@@ -4,11 +4,15 @@ import com.martiansoftware.jsap.FlaggedOption;
 import com.martiansoftware.jsap.JSAP;
 import com.martiansoftware.jsap.JSAPResult;
 import org.reactome.server.tools.analysis.report.exception.AnalysisExporterException;
+import org.reactome.server.tools.analysis.report.metadata.InMemoryMetadataProvider;
+import org.reactome.server.tools.analysis.report.metadata.SnapshotMetadataProvider;
+import org.reactome.server.tools.analysis.report.metrics.TimingSummaryListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.nio.file.Paths;
 import java.time.Instant;
 
 /**
@@ -96,12 +100,31 @@ public class AnalysisExporterMain {
 		importableOnly.setHelp("Filter analysis results to only accept importable resources. (Filters out auxiliary resources)");
 		jsap.registerParameter(importableOnly);
 
+		FlaggedOption metadata = new FlaggedOption("metadata")
+				.setStringParser(JSAP.STRING_PARSER)
+				.setRequired(false)
+				.setLongFlag("metadata");
+		metadata.setHelp("JSON file with species, pathways and diagrams metadata. When set, the graph database is not used");
+		jsap.registerParameter(metadata);
+
+		FlaggedOption snapshot = new FlaggedOption("snapshot")
+				.setStringParser(JSAP.STRING_PARSER)
+				.setRequired(false)
+				.setLongFlag("snapshot");
+		snapshot.setHelp("Metadata snapshot created by MetadataSnapshotMain. When set, the graph database is not used");
+		jsap.registerParameter(snapshot);
+
 		JSAPResult config = jsap.parse(args);
 
 		long start = Instant.now().toEpochMilli();
 		final AnalysisReport analysisReport = new AnalysisReport(config.getString("diagramPath"), config.getString("ehldPath"),
 				config.getString("fireworksPath"), config.getString("analysisPath"),
 				config.getString("svgSummary"));
+		if (config.getString("metadata") != null)
+			analysisReport.setMetadataProvider(InMemoryMetadataProvider.read(Paths.get(config.getString("metadata"))));
+		else if (config.getString("snapshot") != null)
+			analysisReport.setMetadataProvider(SnapshotMetadataProvider.open(Paths.get(config.getString("snapshot"))));
+		analysisReport.setListenerFactory(TimingSummaryListener::new);
 		final FileOutputStream os = new FileOutputStream(config.getString("output"));
 		try {
 			analysisReport.create(config.getString("token"),
@@ -1,25 +1,59 @@
 package org.reactome.server.tools.analysis.report;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.itextpdf.kernel.events.PdfDocumentEvent;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
 import com.itextpdf.layout.Document;
 import org.reactome.server.analysis.core.result.AnalysisStoredResult;
 import org.reactome.server.analysis.core.result.model.ResourceSummary;
 import org.reactome.server.analysis.core.result.utils.TokenUtils;
 import org.reactome.server.tools.analysis.report.exception.AnalysisExporterException;
+import org.reactome.server.tools.analysis.report.metadata.GraphMetadataProvider;
+import org.reactome.server.tools.analysis.report.metadata.InMemoryMetadataProvider;
+import org.reactome.server.tools.analysis.report.metadata.MemoizingMetadataProvider;
+import org.reactome.server.tools.analysis.report.metadata.ReportMetadataProvider;
+import org.reactome.server.tools.analysis.report.metrics.ReportListener;
+import org.reactome.server.tools.analysis.report.metrics.ReportMonitor;
+import org.reactome.server.tools.analysis.report.metrics.TimingSummaryListener;
 import org.reactome.server.tools.analysis.report.section.*;
 import org.reactome.server.tools.analysis.report.style.PdfProfile;
 import org.reactome.server.tools.analysis.report.util.DiagramHelper;
+import org.reactome.server.tools.analysis.report.util.DiskCache;
 import org.reactome.server.tools.analysis.report.util.FireworksHelper;
+import org.reactome.server.tools.analysis.report.util.LoadedFileCache;
+import org.reactome.server.tools.analysis.report.util.PdfNormalizer;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.GregorianCalendar;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Analysis report to export the user's analysis result performance by
@@ -50,26 +84,184 @@ import java.util.Locale;
 public class AnalysisReport {
 
 	private static final Long DEFAULT_SPECIES = 48887L; // Homo Sapiens.
-	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final String PROFILE = "breathe";
+	private static final AtomicInteger PREPARE_THREADS = new AtomicInteger();
+	private static final AtomicInteger VARIANT_THREADS = new AtomicInteger();
+	/**
+	 * Runs the prepare phase of the sections. One thread per processor at
+	 * most, which die after a minute idle. Separate from the pathways executor,
+	 * which the prepare phase of the pathway details waits on.
+	 */
+	private static final Executor PREPARE_EXECUTOR = createPrepareExecutor();
 
+	private final String analysisPath;
 	private final TokenUtils tokenUtils;
-	private final List<Section> SECTIONS = Arrays.asList(
-			new CoverPage(),
-			new TableOfContent(),
-			new Introduction(),
-			new PropertiesSection(),
-			new OverviewSection(),
-			new TopPathwayTable(),
-			new PathwaysDetails(),
-			new IdentifiersFound(),
-			new IdentifierNotFound()
-	);
+	private final DiagramHelper diagramHelper;
+	private final FireworksHelper fireworksHelper;
+	private volatile Executor executor;
+	private volatile ReportMetadataProvider metadataProvider;
+	private volatile Supplier<? extends ReportListener> listenerFactory;
+	private volatile boolean deterministic;
+	private volatile Clock clock = Clock.systemDefaultZone();
+	private volatile DiskCache reportCache;
+	private volatile LoadedFileCache<AnalysisStoredResult> resultCache;
 
+	/**
+	 * Creates a report renderer. The same instance can be used to create any
+	 * number of reports, even concurrently from different threads: every
+	 * piece of rendering state (profiles, fonts, counters) belongs to a single
+	 * call to create.
+	 */
 	public AnalysisReport(String diagramPath, String ehldPath, String fireworksPath, String analysisPath, String svgSummary) {
-		DiagramHelper.setPaths(diagramPath, ehldPath, analysisPath, svgSummary);
-		FireworksHelper.setPaths(fireworksPath, analysisPath);
-		Locale.setDefault(Locale.ENGLISH);
+		diagramHelper = new DiagramHelper(diagramPath, ehldPath, analysisPath, svgSummary);
+		fireworksHelper = new FireworksHelper(fireworksPath, analysisPath);
 		tokenUtils = new TokenUtils(analysisPath);
+		this.analysisPath = analysisPath;
+	}
+
+	/**
+	 * Sets the executor used to render the details of the most significant
+	 * pathways in parallel. Pathways are still added to the document in
+	 * p-value order. If null (default), pathways are rendered sequentially in
+	 * the calling thread. The executor is not shut down by this class.
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Limits the number of diagram and fireworks exports running at the same
+	 * time, across all reports created by this instance. Exports are the most
+	 * expensive part of a report, and waiting exports are served in arrival
+	 * order, so a report with many pathways cannot starve the others. A value
+	 * lower than 1 (default) removes the limit.
+	 */
+	public void setMaxConcurrentExports(int exports) {
+		final Semaphore permits = exports > 0 ? new Semaphore(exports, true) : null;
+		diagramHelper.setPermits(permits);
+		fireworksHelper.setPermits(permits);
+	}
+
+	/**
+	 * Diagrams and fireworks whose vector content is larger than threshold
+	 * bytes are embedded as raster images, which bounds the size of the
+	 * report and the time viewers take to draw it. Default threshold is 4MB.
+	 *
+	 * @param threshold size of the content streams of an exported image, 0 or
+	 *                  less to always embed vector graphics
+	 * @param quality   quality, from 1 to 10, of rasterized diagrams.
+	 *                  Fireworks use their usual quality.
+	 */
+	public void setRasterThreshold(long threshold, int quality) {
+		diagramHelper.setRasterThreshold(threshold, quality);
+		fireworksHelper.setRasterThreshold(threshold);
+	}
+
+	/**
+	 * Keeps the rendered fireworks of each token, species, profile, release
+	 * and raster threshold in directory, using at most maxBytes, so downloading the same analysis
+	 * again, with a different resource or number of pathways, does not render
+	 * the fireworks again. Entries written by previous runs are reused.
+	 */
+	public void setFireworksCache(Path directory, long maxBytes) throws IOException {
+		fireworksHelper.setCache(new DiskCache(directory, maxBytes));
+	}
+
+	/**
+	 * Keeps the most recently used analysis results in memory, so creating
+	 * another report of the same token, e.g. for a different resource or
+	 * species, does not read and deserialize its result again. Results are
+	 * weighed by the size of their res_TOKEN.bin file in the analysis path,
+	 * and read again when the file changes. A value lower than 1 (default)
+	 * disables the cache.
+	 *
+	 * @param maxBytes maximum total size of the files of the cached results
+	 */
+	public void setResultCache(long maxBytes) {
+		resultCache = maxBytes > 0
+				? new LoadedFileCache<>(maxBytes, token -> Paths.get(analysisPath, "res_" + token + ".bin"), tokenUtils::getFromToken)
+				: null;
+	}
+
+	/**
+	 * In deterministic mode, the same analysis, parameters, database version
+	 * and date always produce the same bytes: the document id is derived from
+	 * the parameters, document dates are the start of the report date (UTC)
+	 * and font subsets are named in order instead of at random. It costs one
+	 * more pass over the finished document, which is spooled to a temporary
+	 * file. Default is false.
+	 */
+	public void setDeterministic(boolean deterministic) {
+		this.deterministic = deterministic;
+	}
+
+	/**
+	 * Sets the clock that gives the date of the reports, the system clock by
+	 * default. A {@link Clock#fixed(java.time.Instant, java.time.ZoneId)}
+	 * clock makes deterministic reports reproducible on any day.
+	 */
+	public void setClock(Clock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * Keeps the reports in directory, using at most maxBytes, so a report
+	 * requested again, for the same token, parameters and database version,
+	 * is copied from its file instead of rendered. The cache is looked up
+	 * before the analysis result is read, and a report whose resource is not
+	 * in the analysis is stored under the requested and the actual resource.
+	 * Stored reports are always rendered in deterministic mode, and keep the
+	 * date of their first rendering: each missing report is spooled to a file
+	 * in directory while rendered, then rewritten once more to normalize it.
+	 * Entries written by previous runs are reused.
+	 */
+	public void setReportCache(Path directory, long maxBytes) throws IOException {
+		reportCache = new DiskCache(directory, maxBytes);
+	}
+
+	/**
+	 * Sets where species, pathways and diagrams data are read from. By
+	 * default, a {@link GraphMetadataProvider} is used, which needs {@link
+	 * org.reactome.server.graph.utils.ReactomeGraphCore} to be initialised.
+	 * Use an {@link InMemoryMetadataProvider} to create reports without a
+	 * graph database.
+	 */
+	public void setMetadataProvider(ReportMetadataProvider metadataProvider) {
+		this.metadataProvider = metadataProvider;
+	}
+
+	/**
+	 * Sets the factory of the listener that receives the measurements of each
+	 * report: sections, pathways, diagram and fireworks exports, metadata
+	 * lookups and document flush and close. The factory is called once per
+	 * report. If null (default), nothing is measured. See {@link
+	 * TimingSummaryListener} for a ready to use implementation.
+	 */
+	public void setListenerFactory(Supplier<? extends ReportListener> listenerFactory) {
+		this.listenerFactory = listenerFactory;
+	}
+
+	private ReportMetadataProvider getMetadataProvider() {
+		if (metadataProvider == null) {
+			synchronized (this) {
+				if (metadataProvider == null) metadataProvider = new GraphMetadataProvider();
+			}
+		}
+		return metadataProvider;
+	}
+
+	private List<Section<?>> createSections(SharedWork shared) {
+		return Arrays.asList(
+				new CoverPage(),
+				new TableOfContent(),
+				new Introduction(),
+				new PropertiesSection(),
+				new OverviewSection(fireworksHelper, shared.fireworks),
+				new TopPathwayTable(),
+				new PathwaysDetails(diagramHelper, executor),
+				new IdentifiersFound(),
+				new IdentifierNotFound()
+		);
 	}
 
 	private String getDefaultResource(AnalysisStoredResult result) {
@@ -96,26 +288,168 @@ public class AnalysisReport {
 	 */
 
 	public void create(String token, String resource, Long species, int maxPathways, boolean importableOnly, String diagramProfile, String analysisProfile, String fireworksProfile, OutputStream destination) throws AnalysisExporterException {
-		final AnalysisStoredResult result = tokenUtils.getFromToken(token);
-		create(result, resource, species, maxPathways, importableOnly, diagramProfile, analysisProfile, fireworksProfile, destination);
+		final LoadedFileCache<AnalysisStoredResult> cache = resultCache;
+		final ReportArgs args = new ReportArgs(token, resource, species, maxPathways, importableOnly, diagramProfile, analysisProfile, fireworksProfile);
+		create(token, () -> cache == null ? tokenUtils.getFromToken(token) : cache.get(token), args, destination, new SharedWork(getMetadataProvider(), null));
+	}
+
+	public void create(ReportArgs args, OutputStream destination) throws AnalysisExporterException {
+		create(args.getToken(), args.getResource(), args.getSpecies(), args.getMaxPathways(), args.isImportableOnly(),
+				args.getDiagramProfile(), args.getAnalysisProfile(), args.getFireworksProfile(), destination);
 	}
 
 	/**
 	 * create the report with data set.
 	 */
 	public void create(AnalysisStoredResult result, String resource, Long species, int maxPathways, boolean importableOnly, String diagramProfile, String analysisProfile, String fireworksProfile, OutputStream destination) throws AnalysisExporterException {
-		final PdfProfile pdfProfile = loadProfile("breathe");
-		DiagramHelper.setProfiles(diagramProfile, analysisProfile);
-		FireworksHelper.setProfile(fireworksProfile);
-		if (species == null) species = DEFAULT_SPECIES;
+		final ReportArgs args = new ReportArgs(result.getSummary().getToken(), resource, species, maxPathways, importableOnly, diagramProfile, analysisProfile, fireworksProfile);
+		create(args.getToken(), () -> result, args, destination, new SharedWork(getMetadataProvider(), null));
+	}
+
+	/**
+	 * Creates several reports of the same analysis result in one pass, e.g.
+	 * one per resource, and writes each one into its destination. Variants
+	 * are rendered in parallel, and share the lookups of species, pathways
+	 * and diagrams, and the fireworks of the same species and profile.
+	 * Destinations are not closed.
+	 *
+	 * @param variants the arguments of each variant, whose token is ignored,
+	 *                 and its destination
+	 * @throws AnalysisExporterException the first failure, once every other
+	 *                                   variant has finished
+	 */
+	public void create(AnalysisStoredResult result, Map<ReportArgs, OutputStream> variants) throws AnalysisExporterException {
+		if (variants.isEmpty()) return;
+		final SharedWork shared = new SharedWork(new MemoizingMetadataProvider(getMetadataProvider()), new ConcurrentHashMap<>());
+		final ExecutorService workers = Executors.newFixedThreadPool(Math.min(variants.size(), Runtime.getRuntime().availableProcessors()), runnable -> {
+			final Thread thread = new Thread(runnable, "report-variant-" + VARIANT_THREADS.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			final List<CompletableFuture<Void>> reports = new ArrayList<>();
+			for (Map.Entry<ReportArgs, OutputStream> variant : variants.entrySet()) {
+				reports.add(CompletableFuture.runAsync(() -> {
+					try {
+						create(result.getSummary().getToken(), () -> result, variant.getKey(), variant.getValue(), shared);
+					} catch (AnalysisExporterException e) {
+						throw new CompletionException(e);
+					}
+				}, workers));
+			}
+			Throwable failure = null;
+			for (CompletableFuture<Void> report : reports) {
+				try {
+					report.join();
+				} catch (CompletionException e) {
+					if (failure == null) failure = e.getCause();
+				}
+			}
+			if (failure instanceof AnalysisExporterException) throw (AnalysisExporterException) failure;
+			if (failure instanceof RuntimeException) throw (RuntimeException) failure;
+			if (failure != null) throw new AnalysisExporterException("Couldn't create reports", failure);
+		} finally {
+			workers.shutdownNow();
+		}
+	}
+
+	/**
+	 * @param result loads the analysis result of token, only if the report
+	 *               is not in the report cache
+	 */
+	private void create(String token, Supplier<AnalysisStoredResult> result, ReportArgs requested, OutputStream output, SharedWork shared) throws AnalysisExporterException {
+		final ReportArgs asked = new ReportArgs(token, requested.getResource(), requested.getSpecies() == null ? DEFAULT_SPECIES : requested.getSpecies(),
+				requested.getMaxPathways(), requested.isImportableOnly(), requested.getDiagramProfile(), requested.getAnalysisProfile(), requested.getFireworksProfile());
+		final Supplier<? extends ReportListener> factory = listenerFactory;
+		final ReportMonitor monitor = new ReportMonitor(factory == null ? ReportListener.NO_OP : factory.get(), null);
+		// output bytes are counted where the report is delivered, whether rendered, normalized or copied from the cache
+		final OutputStream destination = monitor.count(output);
+		final ReportMonitor.Timer total = monitor.startReport(token);
+		try {
+			final DiskCache cache = reportCache;
+			if (cache == null) {
+				final AnalysisStoredResult stored = result.get();
+				final Path spool = deterministic ? Files.createTempFile("analysis-report-", ".pdf") : null;
+				try {
+					render(stored, resolve(stored, asked), spool, destination, shared, monitor);
+				} finally {
+					if (spool != null) Files.deleteIfExists(spool);
+				}
+			} else {
+				final ReportMonitor.Timer lookup = monitor.start(ReportListener.Stage.METADATA, "dbVersion");
+				final String prefix;
+				try {
+					prefix = PROFILE + "|" + shared.metadata.getDBVersion() + "|";
+				} finally {
+					lookup.stop();
+				}
+				if (!cache.copy(prefix + asked, destination)) {
+					final AnalysisStoredResult stored = result.get();
+					final ReportArgs args = resolve(stored, asked);
+					final Path file = cache.createTempFile();
+					final Path spool = cache.createTempFile();
+					try {
+						final boolean cached;
+						try (OutputStream os = Files.newOutputStream(file)) {
+							// the resource was replaced, the actual report may be stored already
+							cached = !args.equals(asked) && cache.copy(prefix + args, os);
+							if (!cached) render(stored, args, spool, os, shared, monitor);
+						}
+						Files.copy(file, destination);
+						if (!args.equals(asked)) {
+							final Path alias = cache.createTempFile();
+							try {
+								Files.copy(file, alias, StandardCopyOption.REPLACE_EXISTING);
+								cache.put(prefix + asked, alias);
+							} finally {
+								Files.deleteIfExists(alias);
+							}
+						}
+						if (!cached) cache.put(prefix + args, file);
+					} finally {
+						Files.deleteIfExists(spool);
+						Files.deleteIfExists(file);
+					}
+				}
+			}
+			monitor.finish(total, token);
+		} catch (IOException e) {
+			monitor.fail(total, token, e);
+			throw new AnalysisExporterException("Couldn't write report " + asked, e);
+		} catch (AnalysisExporterException | RuntimeException e) {
+			monitor.fail(total, token, e);
+			throw e;
+		}
+	}
 
+	/**
+	 * @return asked, with the token of result and the first resource of the
+	 * analysis if result does not contain the asked one
+	 */
+	private ReportArgs resolve(AnalysisStoredResult result, ReportArgs asked) {
+		String resource = asked.getResource();
 		// if the analysis result not contains the given resource, use the first resource in this analysis.
 		if (!result.getResourceSummary().contains(new ResourceSummary(resource, null)))
 			resource = getDefaultResource(result);
+		return new ReportArgs(result.getSummary().getToken(), resource, asked.getSpecies(), asked.getMaxPathways(), asked.isImportableOnly(),
+				asked.getDiagramProfile(), asked.getAnalysisProfile(), asked.getFireworksProfile());
+	}
 
-		final AnalysisData analysisData = new AnalysisData(result, resource, species, maxPathways, importableOnly);
-
-		try (Document document = new Document(new PdfDocument(new PdfWriter(destination)))) {
+	/**
+	 * @param spool if not null, the report is written into this file, then
+	 *              normalized into destination (deterministic mode)
+	 */
+	private void render(AnalysisStoredResult result, ReportArgs args, Path spool, OutputStream destination, SharedWork shared, ReportMonitor monitor) throws AnalysisExporterException, IOException {
+		final PdfProfile pdfProfile = PdfProfile.load(PROFILE);
+		final LocalDate date = LocalDate.now(clock);
+		final AnalysisData analysisData = new AnalysisData(shared.metadata, monitor, result, args.getResource(), args.getSpecies(), args.getMaxPathways(), args.isImportableOnly(), args.getDiagramProfile(), args.getAnalysisProfile(), args.getFireworksProfile(), date);
+		final List<PreparedSection<?>> sections = new ArrayList<>();
+		for (Section<?> section : createSections(shared))
+			sections.add(prepare(section, pdfProfile, analysisData, monitor));
+		final ReportMonitor.Timer close;
+		// smart mode writes only once the identical fonts and resources of the imported diagrams and fireworks
+		final PdfWriter writer = new PdfWriter(spool == null ? destination : Files.newOutputStream(spool), new WriterProperties().useSmartMode());
+		try (Document document = new Document(new PdfDocument(writer))) {
 			document.getPdfDocument().getDocumentInfo().setAuthor(String.format("Reactome(%s)", analysisData.getServerName()));
 			document.getPdfDocument().getDocumentInfo().setCreator(String.format("Reactome (%s)", analysisData.getServerName()));
 			document.getPdfDocument().getDocumentInfo().setTitle("Pathway Analysis Report - " + analysisData.getName());
@@ -127,17 +461,127 @@ public class AnalysisReport {
 					pdfProfile.getMargin().getBottom(),
 					pdfProfile.getMargin().getLeft());
 			document.getPdfDocument().addEventHandler(PdfDocumentEvent.START_PAGE, new FooterEventHandler(document, pdfProfile, analysisData.getServerName()));
-			for (Section section : SECTIONS)
-				section.render(document, pdfProfile, analysisData);
+			for (PreparedSection<?> section : sections) {
+				final ReportMonitor.Timer timer = monitor.start(ReportListener.Stage.SECTION, section.getName());
+				try {
+					section.render(document, pdfProfile, analysisData);
+				} catch (AnalysisExporterException | RuntimeException e) {
+					// models not started yet are never computed, the others are ignored
+					sections.forEach(PreparedSection::cancel);
+					throw e;
+				} finally {
+					timer.stop();
+				}
+			}
+			close = monitor.start(ReportListener.Stage.CLOSE, "document");
+		}
+		close.stop();
+		if (spool != null) {
+			final ReportMonitor.Timer normalize = monitor.start(ReportListener.Stage.NORMALIZE, "document");
+			try {
+				final byte[] id = documentId(PROFILE + "|" + analysisData.getDBVersion() + "|" + args);
+				PdfNormalizer.normalize(spool, destination, id, GregorianCalendar.from(date.atStartOfDay(ZoneOffset.UTC)));
+			} finally {
+				normalize.stop();
+			}
 		}
 	}
 
-	private PdfProfile loadProfile(String profile) throws AnalysisExporterException {
+	/**
+	 * @return the MD5 of key, used as id of deterministic documents
+	 */
+	private static byte[] documentId(String key) {
 		try {
-			final InputStream resource = PdfProfile.class.getResourceAsStream(profile.toLowerCase() + ".json");
-			return MAPPER.readValue(resource, PdfProfile.class);
-		} catch (IOException e) {
-			throw new AnalysisExporterException("Unknown profile " + profile, e);
+			return MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+		} catch (NoSuchAlgorithmException e) {
+			// every JVM implements MD5
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Starts the prepare phase of section in the background.
+	 */
+	private static <M> PreparedSection<M> prepare(Section<M> section, PdfProfile profile, AnalysisData analysisData, ReportMonitor monitor) {
+		final String name = section.getClass().getSimpleName();
+		final CompletableFuture<M> model = CompletableFuture.supplyAsync(() -> {
+			final ReportMonitor.Timer timer = monitor.start(ReportListener.Stage.PREPARE, name);
+			try {
+				return section.prepare(profile, analysisData);
+			} catch (AnalysisExporterException e) {
+				throw new CompletionException(e);
+			} finally {
+				timer.stop();
+			}
+		}, PREPARE_EXECUTOR);
+		return new PreparedSection<>(name, section, model);
+	}
+
+	private static Executor createPrepareExecutor() {
+		final int threads = Runtime.getRuntime().availableProcessors();
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), runnable -> {
+			final Thread thread = new Thread(runnable, "report-prepare-" + PREPARE_THREADS.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Work shared by the reports created in the same call.
+	 */
+	private static class SharedWork {
+		private final ReportMetadataProvider metadata;
+		/**
+		 * Rendered fireworks, null if not shared
+		 */
+		private final ConcurrentMap<String, CompletableFuture<byte[]>> fireworks;
+
+		SharedWork(ReportMetadataProvider metadata, ConcurrentMap<String, CompletableFuture<byte[]>> fireworks) {
+			this.metadata = metadata;
+			this.fireworks = fireworks;
+		}
+	}
+
+	/**
+	 * A section and the model it is preparing.
+	 */
+	private static class PreparedSection<M> {
+		private final String name;
+		private final Section<M> section;
+		private final CompletableFuture<M> model;
+
+		PreparedSection(String name, Section<M> section, CompletableFuture<M> model) {
+			this.name = name;
+			this.section = section;
+			this.model = model;
+		}
+
+		String getName() {
+			return name;
+		}
+
+		/**
+		 * Cancels the model if it has not started yet.
+		 */
+		void cancel() {
+			model.cancel(false);
+		}
+
+		/**
+		 * Waits for the model and lays out the section.
+		 */
+		void render(Document document, PdfProfile profile, AnalysisData analysisData) throws AnalysisExporterException {
+			final M prepared;
+			try {
+				prepared = model.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof AnalysisExporterException) throw (AnalysisExporterException) e.getCause();
+				if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+				throw new AnalysisExporterException("Couldn't prepare " + name, e.getCause());
+			}
+			section.render(document, profile, analysisData, prepared);
 		}
 	}
 }
@@ -0,0 +1,126 @@
+package org.reactome.server.tools.analysis.report;
+
+import org.reactome.server.analysis.core.result.AnalysisStoredResult;
+import org.reactome.server.analysis.core.result.PathwayNodeSummary;
+import org.reactome.server.analysis.core.result.model.FoundEntities;
+import org.reactome.server.analysis.core.result.model.FoundEntity;
+import org.reactome.server.analysis.core.result.model.FoundInteractor;
+import org.reactome.server.analysis.core.result.model.FoundInteractors;
+import org.reactome.server.analysis.core.result.model.IdentifierSummary;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Found entities and interactors of the analysis, computed in one pass over
+ * the pathways of the result. For every resource of the report, it keeps the
+ * identifiers found in the whole analysis, sorted by id and without
+ * duplicates. For every pathway in the report, it also keeps its found
+ * entities and interactors, filtered by each resource.
+ */
+public class IdentifierIndex {
+
+	private static final Comparator<IdentifierSummary> BY_ID = Comparator.comparing(IdentifierSummary::getId);
+
+	private final AnalysisStoredResult result;
+	private final Map<String, Set<FoundEntity>> entities = new HashMap<>();
+	private final Map<String, Set<FoundInteractor>> interactors = new HashMap<>();
+	private final Map<String, PathwaySlice> slices = new HashMap<>();
+	private final long interactorsCount;
+
+	IdentifierIndex(AnalysisStoredResult result, Collection<String> resources, Collection<String> stIds, boolean includeInteractors) {
+		this.result = result;
+		final Set<String> reportPathways = new HashSet<>(stIds);
+		final Set<FoundInteractor> allInteractors = new HashSet<>();
+		for (String resource : resources) {
+			entities.put(resource, new TreeSet<>(BY_ID));
+			interactors.put(resource, new TreeSet<>(BY_ID));
+		}
+		for (PathwayNodeSummary pathway : result.getPathways()) {
+			final String stId = pathway.getStId();
+			final PathwaySlice slice = new PathwaySlice(result.getFoundEntities(stId, "TOTAL"));
+			if (includeInteractors) slice.interactors = result.getFoundInteractors(stId);
+			for (String resource : resources) {
+				final FoundEntities filtered = slice.entities.filter(resource);
+				slice.entitiesByResource.put(resource, filtered);
+				entities.get(resource).addAll(filtered.getIdentifiers());
+				if (includeInteractors) {
+					final FoundInteractors filteredInteractors = slice.interactors.filter(resource);
+					slice.interactorsByResource.put(resource, filteredInteractors);
+					interactors.get(resource).addAll(filteredInteractors.getIdentifiers());
+				}
+			}
+			if (includeInteractors) allInteractors.addAll(slice.interactors.getIdentifiers());
+			if (reportPathways.contains(stId)) slices.put(stId, slice);
+		}
+		interactorsCount = allInteractors.size();
+	}
+
+	/**
+	 * @return found entities of resource in the whole analysis, sorted by id
+	 */
+	public Collection<FoundEntity> getEntities(String resource) {
+		return entities.getOrDefault(resource, Collections.emptySet());
+	}
+
+	/**
+	 * @return found interactors of resource in the whole analysis, sorted by
+	 * id. Empty if the analysis does not include interactors
+	 */
+	public Collection<FoundInteractor> getInteractors(String resource) {
+		return interactors.getOrDefault(resource, Collections.emptySet());
+	}
+
+	/**
+	 * @return number of distinct interactors found in the whole analysis
+	 */
+	public long getInteractorsCount() {
+		return interactorsCount;
+	}
+
+	/**
+	 * @return found entities of pathway stId for all resources
+	 */
+	public FoundEntities getPathwayEntities(String stId) {
+		return getSlice(stId).entities;
+	}
+
+	public FoundEntities getPathwayEntities(String stId, String resource) {
+		final PathwaySlice slice = getSlice(stId);
+		return slice.entitiesByResource.computeIfAbsent(resource, slice.entities::filter);
+	}
+
+	/**
+	 * @return found interactors of pathway stId for all resources
+	 */
+	public FoundInteractors getPathwayInteractors(String stId) {
+		final PathwaySlice slice = getSlice(stId);
+		if (slice.interactors == null) slice.interactors = result.getFoundInteractors(stId);
+		return slice.interactors;
+	}
+
+	public FoundInteractors getPathwayInteractors(String stId, String resource) {
+		final PathwaySlice slice = getSlice(stId);
+		return slice.interactorsByResource.computeIfAbsent(resource, r -> getPathwayInteractors(stId).filter(r));
+	}
+
+	private PathwaySlice getSlice(String stId) {
+		final PathwaySlice slice;
+		synchronized (slices) {
+			// Pathways of the report are always in the result, this is just a safety net
+			slice = slices.computeIfAbsent(stId, id -> new PathwaySlice(result.getFoundEntities(id, "TOTAL")));
+		}
+		return slice;
+	}
+
+	private static class PathwaySlice {
+		private final FoundEntities entities;
+		private final Map<String, FoundEntities> entitiesByResource = new ConcurrentHashMap<>();
+		private final Map<String, FoundInteractors> interactorsByResource = new ConcurrentHashMap<>();
+		private volatile FoundInteractors interactors;
+
+		PathwaySlice(FoundEntities entities) {
+			this.entities = entities;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package org.reactome.server.tools.analysis.report;
+
+import com.martiansoftware.jsap.FlaggedOption;
+import com.martiansoftware.jsap.JSAP;
+import com.martiansoftware.jsap.JSAPResult;
+import org.reactome.server.graph.utils.ReactomeGraphCore;
+import org.reactome.server.tools.analysis.report.metadata.GraphMetadataProvider;
+import org.reactome.server.tools.analysis.report.metadata.SnapshotMetadataProvider;
+import org.reactome.server.tools.analysis.report.util.AnalysisReportGraphConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+
+/**
+ * Exports the metadata of every species and pathway in the graph database
+ * into a snapshot file named metadata-[version].snapshot. Load it with {@link
+ * SnapshotMetadataProvider#open(Path)} to create reports of that release with
+ * no graph queries. Run once per Reactome release.
+ */
+public class MetadataSnapshotMain {
+
+	public static void main(String[] args) throws Exception {
+		Logger logger = LoggerFactory.getLogger(MetadataSnapshotMain.class);
+		JSAP jsap = new JSAP();
+
+		FlaggedOption output = new FlaggedOption("output");
+		output.setStringParser(JSAP.STRING_PARSER)
+				.setRequired(true)
+				.setShortFlag('o')
+				.setHelp("output folder to save the snapshot");
+		jsap.registerParameter(output);
+
+		FlaggedOption uri = new FlaggedOption("uri");
+		uri.setStringParser(JSAP.STRING_PARSER)
+				.setRequired(false)
+				.setDefault("bolt://localhost:7687")
+				.setLongFlag("uri")
+				.setHelp("Neo4j uri");
+		jsap.registerParameter(uri);
+
+		FlaggedOption user = new FlaggedOption("user");
+		user.setStringParser(JSAP.STRING_PARSER)
+				.setRequired(false)
+				.setDefault("neo4j")
+				.setShortFlag('u')
+				.setHelp("Neo4j user");
+		jsap.registerParameter(user);
+
+		FlaggedOption password = new FlaggedOption("password");
+		password.setStringParser(JSAP.STRING_PARSER)
+				.setRequired(false)
+				.setDefault("neo4j")
+				.setShortFlag('p')
+				.setHelp("Neo4j password");
+		jsap.registerParameter(password);
+
+		JSAPResult config = jsap.parse(args);
+		if (!config.success()) {
+			System.err.println("Usage: java " + MetadataSnapshotMain.class.getName() + " " + jsap.getUsage());
+			System.exit(1);
+		}
+
+		long start = Instant.now().toEpochMilli();
+		ReactomeGraphCore.initialise(config.getString("uri"), config.getString("user"), config.getString("password"), AnalysisReportGraphConfig.class);
+		final GraphMetadataProvider provider = new GraphMetadataProvider();
+		final int version = provider.getDBVersion();
+		final Path folder = Paths.get(config.getString("output"));
+		Files.createDirectories(folder);
+		final Path file = folder.resolve(String.format("metadata-%d.snapshot", version));
+		SnapshotMetadataProvider.write(file, version, provider.getAllSpecies(), provider.getAllPathways(), provider);
+		long end = Instant.now().toEpochMilli();
+		logger.info("Metadata snapshot of release {} written to {} in {}ms ({} bytes)", version, file, end - start, Files.size(file));
+		System.exit(0);
+	}
+}
@@ -2,26 +2,29 @@ package org.reactome.server.tools.analysis.report;
 
 import org.reactome.server.analysis.core.result.PathwayNodeSummary;
 import org.reactome.server.analysis.core.result.model.PathwayBase;
-import org.reactome.server.graph.domain.model.Pathway;
+import org.reactome.server.tools.analysis.report.metadata.DiagramMetadata;
 
 /**
  * Includes for a stId: <dl> <dt>summary : {@link PathwayNodeSummary}</dt>
  * <dd>The pathway raw data, as is, in the analysis. Data is not filtered by
  * resource neither species.</dd> <dt>base : {@link PathwayBase}</dt>
  * <dd>Statistics of the pathway filtered by resource and species.</dd>
- * <dt>pathway : {@link Pathway}</dt> <dd>Graph database data of the pathway,
- * including summations, references...</dd> </dl>
+ * <dt>diagram : {@link DiagramMetadata}</dt> <dd>Diagram where the pathway
+ * is represented.</dd> </dl>
+ * Graph database data of the pathway, including summations, references..., is
+ * not kept here, but fetched with {@link AnalysisData#getPathwayMetadata} when
+ * the pathway is rendered, so it is only in memory while it is needed.
  */
 public class PathwayData {
 
 	final private PathwayNodeSummary summary;
 	final private PathwayBase base;
-	private Pathway pathway;
+	final private DiagramMetadata diagram;
 
-	PathwayData(PathwayNodeSummary summary, PathwayBase base, Pathway pathway) {
+	PathwayData(PathwayNodeSummary summary, PathwayBase base, DiagramMetadata diagram) {
 		this.summary = summary;
 		this.base = base;
-		this.pathway = pathway;
+		this.diagram = diagram;
 	}
 
 	/**
@@ -40,9 +43,9 @@ public class PathwayData {
 	}
 
 	/**
-	 * Graph database data of the pathway, including summations, references...
+	 * Diagram where the pathway is represented, null if there is none.
 	 */
-	public Pathway getPathway() {
-		return pathway;
+	public DiagramMetadata getDiagram() {
+		return diagram;
 	}
 }
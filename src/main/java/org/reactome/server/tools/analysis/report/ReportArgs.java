@@ -0,0 +1,98 @@
+package org.reactome.server.tools.analysis.report;
+
+import java.util.Objects;
+
+/**
+ * Immutable set of parameters of a report: the same arguments as {@link
+ * AnalysisReport#create(String, String, Long, int, boolean, String, String,
+ * String, java.io.OutputStream)} without the destination. Two ReportArgs are
+ * equal when they would produce the same report.
+ */
+public class ReportArgs {
+
+	private final String token;
+	private final String resource;
+	private final Long species;
+	private final int maxPathways;
+	private final boolean importableOnly;
+	private final String diagramProfile;
+	private final String analysisProfile;
+	private final String fireworksProfile;
+
+	public ReportArgs(String token, String resource, Long species, int maxPathways, boolean importableOnly, String diagramProfile, String analysisProfile, String fireworksProfile) {
+		this.token = Objects.requireNonNull(token, "token");
+		this.resource = resource;
+		this.species = species;
+		this.maxPathways = maxPathways;
+		this.importableOnly = importableOnly;
+		this.diagramProfile = diagramProfile;
+		this.analysisProfile = analysisProfile;
+		this.fireworksProfile = fireworksProfile;
+	}
+
+	public String getToken() {
+		return token;
+	}
+
+	public String getResource() {
+		return resource;
+	}
+
+	public Long getSpecies() {
+		return species;
+	}
+
+	public int getMaxPathways() {
+		return maxPathways;
+	}
+
+	public boolean isImportableOnly() {
+		return importableOnly;
+	}
+
+	public String getDiagramProfile() {
+		return diagramProfile;
+	}
+
+	public String getAnalysisProfile() {
+		return analysisProfile;
+	}
+
+	public String getFireworksProfile() {
+		return fireworksProfile;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		final ReportArgs that = (ReportArgs) o;
+		return maxPathways == that.maxPathways
+				&& importableOnly == that.importableOnly
+				&& token.equals(that.token)
+				&& Objects.equals(resource, that.resource)
+				&& Objects.equals(species, that.species)
+				&& Objects.equals(diagramProfile, that.diagramProfile)
+				&& Objects.equals(analysisProfile, that.analysisProfile)
+				&& Objects.equals(fireworksProfile, that.fireworksProfile);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(token, resource, species, maxPathways, importableOnly, diagramProfile, analysisProfile, fireworksProfile);
+	}
+
+	@Override
+	public String toString() {
+		return "ReportArgs{" +
+				"token='" + token + '\'' +
+				", resource='" + resource + '\'' +
+				", species=" + species +
+				", maxPathways=" + maxPathways +
+				", importableOnly=" + importableOnly +
+				", diagramProfile='" + diagramProfile + '\'' +
+				", analysisProfile='" + analysisProfile + '\'' +
+				", fireworksProfile='" + fireworksProfile + '\'' +
+				'}';
+	}
+}
@@ -0,0 +1,403 @@
+package org.reactome.server.tools.analysis.report;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs reports asynchronously on a bounded pool of threads. At most
+ * maxConcurrentReports reports are rendered at the same time, and at most
+ * maxQueuedReports wait for a free thread. Once both are full, new reports
+ * are rejected with a {@link RejectedExecutionException}, so callers can shed
+ * load (e.g. answer with a 503) instead of overloading the machine.
+ * Identical requests arriving while a report is scheduled or rendered share
+ * that report, and take no thread nor place in the queue.
+ * <pre><code>
+ * ReportScheduler scheduler = new ReportScheduler(report, 4, 16);
+ * scheduler.submit(args, outputStream)
+ *          .whenComplete((v, error) -> outputStream.close());
+ * </code></pre>
+ */
+public class ReportScheduler implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReportScheduler.class);
+	/**
+	 * Bytes of a report kept to be replayed to identical requests arriving
+	 * while it is written. Past this size, the report takes no more requests,
+	 * and an identical request schedules a new one.
+	 */
+	private static final int MAX_REPLAY_BYTES = 16 * 1024 * 1024;
+	/**
+	 * Bytes of a report waiting to be written into one destination. Past
+	 * this size, the render waits for the destination.
+	 */
+	private static final int MAX_BUFFERED_BYTES = 4 * 1024 * 1024;
+	private static final long DEFAULT_SLOW_CLIENT_TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+
+	private final AnalysisReport report;
+	private final ThreadPoolExecutor executor;
+	/**
+	 * Copies rendered bytes into the destinations, one task per destination
+	 */
+	private final ExecutorService writers = Executors.newCachedThreadPool(new ReportThreadFactory("analysis-report-writer-"));
+	/**
+	 * Reports scheduled or being rendered, by arguments
+	 */
+	private final Map<ReportArgs, Render> renders = new ConcurrentHashMap<>();
+	private volatile long slowClientTimeout = DEFAULT_SLOW_CLIENT_TIMEOUT;
+
+	public ReportScheduler(AnalysisReport report, int maxConcurrentReports, int maxQueuedReports) {
+		if (maxConcurrentReports < 1) throw new IllegalArgumentException("maxConcurrentReports must be positive");
+		this.report = report;
+		final BlockingQueue<Runnable> queue = maxQueuedReports > 0
+				? new ArrayBlockingQueue<>(maxQueuedReports)
+				: new SynchronousQueue<>();
+		this.executor = new ThreadPoolExecutor(maxConcurrentReports, maxConcurrentReports,
+				0L, TimeUnit.MILLISECONDS, queue, new ReportThreadFactory("analysis-report-"), new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	/**
+	 * Schedules the report described by args, to be written into destination.
+	 * The destination is not closed. If an identical report is already
+	 * scheduled or being rendered, no new report is scheduled: the request
+	 * gets the bytes that report has already written, then the rest as they
+	 * are written. The destination is written from a separate thread. When it
+	 * falls a few megabytes behind, the render waits for it, and if it is
+	 * still behind after the slow client timeout it is dropped: its future
+	 * fails with an {@link IOException}.
+	 *
+	 * @return a future completed when the report has been completely written,
+	 * or exceptionally with the cause of the failure. Cancelling the future
+	 * before the report starts prevents it from running, unless other
+	 * requests are waiting for the same report.
+	 * @throws RejectedExecutionException if there are already
+	 *                                    maxConcurrentReports running and
+	 *                                    maxQueuedReports waiting, or the
+	 *                                    scheduler has been shut down
+	 */
+	public CompletableFuture<Void> submit(ReportArgs args, OutputStream destination) {
+		final Request request = new Request(destination);
+		final boolean[] created = {false};
+		final Render render = renders.compute(args, (key, current) -> {
+			final Render attached = current == null ? new Render(key) : current;
+			attached.pending.add(request);
+			created[0] = current == null;
+			return attached;
+		});
+		if (created[0]) {
+			try {
+				executor.execute(render);
+			} catch (RejectedExecutionException e) {
+				// requests attached meanwhile fail too
+				renders.remove(args, render);
+				render.fail(e);
+				throw e;
+			}
+		}
+		return request.future;
+	}
+
+	/**
+	 * @param timeout how long a render waits for a destination that takes no
+	 *                bytes, before dropping it. 30 seconds by default.
+	 */
+	public void setSlowClientTimeout(long timeout, TimeUnit unit) {
+		this.slowClientTimeout = unit.toNanos(timeout);
+	}
+
+	/**
+	 * @return number of distinct reports scheduled or being rendered, each
+	 * one possibly requested more than once
+	 */
+	public int getPendingReports() {
+		return renders.size();
+	}
+
+	/**
+	 * @return number of reports being rendered right now
+	 */
+	public int getActiveReports() {
+		return executor.getActiveCount();
+	}
+
+	/**
+	 * @return number of reports waiting for a free thread
+	 */
+	public int getQueuedReports() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * Stops accepting new reports. Reports already scheduled are completed.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Waits until every report scheduled before the shutdown has been
+	 * rendered and written into its destinations.
+	 */
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		if (!executor.awaitTermination(timeout, unit)) return false;
+		// no more chunks are queued once every render has ended
+		writers.shutdown();
+		return writers.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void close() {
+		shutdown();
+	}
+
+	/**
+	 * One rendering of a report, and the requests waiting for it. The report
+	 * is handed to the writer of every request as it is rendered. Requests
+	 * are only added, inside compute, while the render is in renders, and
+	 * they get the bytes written before they arrived on the next write.
+	 */
+	private class Render implements Runnable {
+		private final ReportArgs args;
+		/**
+		 * Requests added since the last write
+		 */
+		private final Queue<Request> pending = new ConcurrentLinkedQueue<>();
+		/**
+		 * Requests receiving the report, only used by the rendering thread
+		 */
+		private final List<Request> requests = new ArrayList<>();
+		/**
+		 * Chunks written so far, null once the render takes no more requests
+		 */
+		private List<byte[]> replay = new ArrayList<>();
+		private long replayBytes;
+		private final OutputStream output = new OutputStream() {
+			@Override
+			public void write(int b) {
+				write(new byte[]{(byte) b}, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				if (len == 0) return;
+				// chunks are shared by the replay and every request
+				final byte[] chunk = Arrays.copyOfRange(b, off, off + len);
+				attach();
+				for (Request request : requests) request.offer(chunk);
+				if (replay == null) return;
+				replay.add(chunk);
+				replayBytes += len;
+				if (replayBytes > MAX_REPLAY_BYTES) {
+					renders.remove(args, Render.this);
+					attach();
+					replay = null;
+				}
+			}
+		};
+
+		Render(ReportArgs args) {
+			this.args = args;
+		}
+
+		@Override
+		public void run() {
+			final boolean[] cancelled = {false};
+			renders.computeIfPresent(args, (key, current) -> {
+				if (current != this || pending.stream().anyMatch(request -> !request.future.isDone())) return current;
+				cancelled[0] = true;
+				return null;
+			});
+			if (cancelled[0]) return;
+			try {
+				report.create(args, output);
+			} catch (Throwable e) {
+				renders.remove(args, this);
+				logger.error("Couldn't create report " + args, e);
+				fail(e);
+				return;
+			}
+			// no more requests can be attached
+			renders.remove(args, this);
+			attach();
+			replay = null;
+			if (requests.size() > 1) logger.info(String.format("Report %s served %d requests", args, requests.size()));
+			requests.forEach(Request::finish);
+		}
+
+		/**
+		 * Hands the chunks written so far to the pending requests, which then
+		 * receive the rest of the report.
+		 */
+		private void attach() {
+			for (Request request = pending.poll(); request != null; request = pending.poll()) {
+				requests.add(request);
+				request.start(replay);
+			}
+		}
+
+		/**
+		 * Must be called once removed from renders.
+		 */
+		private void fail(Throwable cause) {
+			for (Request request = pending.poll(); request != null; request = pending.poll()) requests.add(request);
+			requests.forEach(request -> request.future.completeExceptionally(cause));
+		}
+	}
+
+	/**
+	 * One destination of a report. The rendering thread only queues chunks;
+	 * a writer task copies them into the destination, so clients of the same
+	 * report are written concurrently. A client more than MAX_BUFFERED_BYTES
+	 * behind holds the render for at most the slow client timeout.
+	 */
+	private class Request implements Runnable {
+		private final OutputStream destination;
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+		private final Queue<byte[]> chunks = new ConcurrentLinkedQueue<>();
+		/**
+		 * Bytes queued after the request started, replayed bytes excluded.
+		 * Guarded by this.
+		 */
+		private long buffered;
+		private final AtomicBoolean writing = new AtomicBoolean();
+		/**
+		 * Replayed bytes are shared with the render, so they do not count in
+		 * buffered
+		 */
+		private volatile List<byte[]> replay;
+		private volatile boolean finished;
+
+		Request(OutputStream destination) {
+			this.destination = destination;
+			// wakes up the rendering thread if it waits for this request
+			future.whenComplete((v, e) -> written(0));
+		}
+
+		/**
+		 * Called by the rendering thread before any other chunk is offered.
+		 */
+		private void start(List<byte[]> replay) {
+			if (replay == null || replay.isEmpty()) return;
+			this.replay = new ArrayList<>(replay);
+			schedule();
+		}
+
+		/**
+		 * Queues chunk, waiting while more than MAX_BUFFERED_BYTES are
+		 * pending. The request fails if there is still no room after the
+		 * slow client timeout.
+		 */
+		private void offer(byte[] chunk) {
+			synchronized (this) {
+				final long deadline = System.nanoTime() + slowClientTimeout;
+				while (buffered > 0 && buffered + chunk.length > MAX_BUFFERED_BYTES && !future.isDone()) {
+					final long left = deadline - System.nanoTime();
+					if (left <= 0) {
+						future.completeExceptionally(new IOException("Client is too slow, waited " + TimeUnit.NANOSECONDS.toMillis(slowClientTimeout) + " ms to write the report"));
+						break;
+					}
+					try {
+						TimeUnit.NANOSECONDS.timedWait(this, left);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						future.completeExceptionally(e);
+					}
+				}
+				if (future.isDone()) {
+					chunks.clear();
+					return;
+				}
+				buffered += chunk.length;
+			}
+			chunks.add(chunk);
+			schedule();
+		}
+
+		/**
+		 * Called by the rendering thread after the last chunk is offered.
+		 */
+		private void finish() {
+			finished = true;
+			schedule();
+		}
+
+		private void schedule() {
+			if (!writing.compareAndSet(false, true)) return;
+			try {
+				writers.execute(this);
+			} catch (RejectedExecutionException e) {
+				writing.set(false);
+				future.completeExceptionally(e);
+			}
+		}
+
+		@Override
+		public void run() {
+			do {
+				// every chunk is queued before finished is set
+				final boolean last = finished;
+				try {
+					write();
+					if (last && !future.isDone()) {
+						destination.flush();
+						future.complete(null);
+					}
+				} catch (IOException | RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+				if (future.isDone()) {
+					replay = null;
+					chunks.clear();
+				}
+				writing.set(false);
+			} while (!future.isDone() && (replay != null || !chunks.isEmpty() || finished) && writing.compareAndSet(false, true));
+		}
+
+		private void write() throws IOException {
+			final List<byte[]> replay = this.replay;
+			if (replay != null) {
+				for (byte[] chunk : replay) {
+					if (future.isDone()) return;
+					destination.write(chunk);
+				}
+				this.replay = null;
+			}
+			for (byte[] chunk = chunks.poll(); chunk != null && !future.isDone(); chunk = chunks.poll()) {
+				destination.write(chunk);
+				written(chunk.length);
+			}
+		}
+
+		private synchronized void written(int bytes) {
+			buffered -= bytes;
+			notifyAll();
+		}
+	}
+
+	private static class ReportThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+		private final String prefix;
+
+		ReportThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			final Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -1,6 +1,10 @@
 package org.reactome.server.tools.analysis.report.exception;
 
 public class AnalysisExporterException extends Exception {
+	public AnalysisExporterException(String message) {
+		super(message);
+	}
+
 	public AnalysisExporterException(String message, Throwable throwable) {
 		super(message, throwable);
 	}
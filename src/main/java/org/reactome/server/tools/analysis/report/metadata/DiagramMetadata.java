@@ -0,0 +1,39 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Diagram where a pathway is represented. If the pathway has no diagram of its
+ * own, diagramStId is the closest ancestor with a diagram, and events
+ * contains the pathway, so it can be selected.
+ */
+public class DiagramMetadata {
+
+	private String diagramStId;
+	private List<String> events = new ArrayList<>();
+
+	public DiagramMetadata() {
+	}
+
+	public DiagramMetadata(String diagramStId, List<String> events) {
+		this.diagramStId = diagramStId;
+		this.events = events;
+	}
+
+	public String getDiagramStId() {
+		return diagramStId;
+	}
+
+	public void setDiagramStId(String diagramStId) {
+		this.diagramStId = diagramStId;
+	}
+
+	public List<String> getEvents() {
+		return events;
+	}
+
+	public void setEvents(List<String> events) {
+		this.events = events;
+	}
+}
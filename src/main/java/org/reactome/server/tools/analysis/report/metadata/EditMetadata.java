@@ -0,0 +1,49 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One InstanceEdit of a pathway. type is the relationship that links the
+ * pathway with the edit (created, modified, authored, edited, reviewed or
+ * revised).
+ */
+public class EditMetadata {
+
+	private String type;
+	private String dateTime;
+	private List<PersonMetadata> authors = new ArrayList<>();
+
+	public EditMetadata() {
+	}
+
+	public EditMetadata(String type, String dateTime, List<PersonMetadata> authors) {
+		this.type = type;
+		this.dateTime = dateTime;
+		this.authors = authors;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	public String getDateTime() {
+		return dateTime;
+	}
+
+	public void setDateTime(String dateTime) {
+		this.dateTime = dateTime;
+	}
+
+	public List<PersonMetadata> getAuthors() {
+		return authors;
+	}
+
+	public void setAuthors(List<PersonMetadata> authors) {
+		this.authors = authors;
+	}
+}
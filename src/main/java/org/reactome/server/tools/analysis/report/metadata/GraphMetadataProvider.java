@@ -0,0 +1,195 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.reactome.server.graph.domain.model.Species;
+import org.reactome.server.graph.service.DatabaseObjectService;
+import org.reactome.server.graph.service.GeneralService;
+import org.reactome.server.graph.utils.ReactomeGraphCore;
+import org.springframework.data.neo4j.core.Neo4jClient;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fetches the report metadata from the graph database. Pathways and diagrams
+ * are fetched in bulk, so the number of queries does not depend on the number
+ * of pathways in the report.
+ */
+public class GraphMetadataProvider implements ReportMetadataProvider {
+
+	private static final String PATHWAYS_QUERY = "" +
+			"MATCH (p:Pathway) " +
+			"WHERE p.stId IN $stIds " +
+			"RETURN p.stId AS stId, " +
+			"       p.displayName AS displayName, " +
+			"       [(p)-[r:compartment]->(c) | {order: r.order, name: c.displayName}] AS compartments, " +
+			"       [(p)-[r:disease]->(d) | {order: r.order, name: d.displayName}] AS diseases, " +
+			"       [(p)-[r:inferredFrom]->(e) | {order: r.order, name: e.displayName}] AS inferredFrom, " +
+			"       [(p)-[r:summation]->(s) | {order: r.order, dbId: s.dbId, text: s.text}] AS summations, " +
+			"       [(p)-[r:literatureReference]->(l) | {order: r.order, schemaClass: l.schemaClass, displayName: l.displayName, " +
+			"            title: l.title, year: l.year, journal: l.journal, volume: l.volume, pages: l.pages, " +
+			"            url: coalesce(l.url, l.uniformResourceLocator), chapterTitle: l.chapterTitle, " +
+			"            authors: [(l)-[a:author]->(person:Person) | {order: a.order, surname: person.surname, firstname: person.firstname, initial: person.initial}]}] AS references, " +
+			"       [(p)-[r:created|modified|authored|edited|reviewed|revised]->(ie:InstanceEdit) | {type: type(r), dateTime: ie.dateTime, " +
+			"            authors: [(ie)-[a:author]->(person:Person) | {order: a.order, surname: person.surname, firstname: person.firstname, initial: person.initial}]}] AS edits";
+
+	/**
+	 * Max number of hasEvent steps between a pathway and the diagram
+	 * representing it. Deeper than the Reactome event hierarchy.
+	 */
+	private static final int MAX_DIAGRAM_DEPTH = 10;
+
+	private static final String DIAGRAMS_QUERY = "" +
+			"MATCH (p:Pathway) " +
+			"WHERE p.stId IN $stIds " +
+			"OPTIONAL MATCH path=(d:Pathway{hasDiagram:true})-[:hasEvent*0.." + MAX_DIAGRAM_DEPTH + "]->(p) " +
+			"WITH p, d, length(path) AS distance " +
+			"ORDER BY distance, d.stId " +
+			"WITH p, collect(d.stId) AS diagrams " +
+			"RETURN p.stId AS stId, diagrams[0] AS diagramStId";
+
+	private static final String SPECIES_QUERY = "" +
+			"MATCH (s:Species) " +
+			"RETURN s.dbId AS dbId, s.displayName AS displayName";
+
+	private static final String ALL_PATHWAYS_QUERY = "" +
+			"MATCH (p:Pathway) " +
+			"RETURN p.stId AS stId";
+
+	private static final Comparator<Value> BY_ORDER = Comparator.comparing(value -> value.get("order").isNull() ? Integer.MAX_VALUE : value.get("order").asInt());
+
+	private final Neo4jClient client = ReactomeGraphCore.getService(Neo4jClient.class);
+	private final DatabaseObjectService databaseObjectService = ReactomeGraphCore.getService(DatabaseObjectService.class);
+	private final GeneralService generalService = ReactomeGraphCore.getService(GeneralService.class);
+
+	@Override
+	public String getSpeciesName(Long dbId) {
+		final Species species = databaseObjectService.findByIdNoRelations(dbId);
+		return species == null ? null : species.getDisplayName();
+	}
+
+	@Override
+	public int getDBVersion() {
+		return generalService.getDBInfo().getVersion();
+	}
+
+	/**
+	 * Fetches, in one query, the metadata of every pathway in stIds.
+	 *
+	 * @return a map stId to metadata. stIds not found in the database are not
+	 * present in the map
+	 */
+	@Override
+	public Map<String, PathwayMetadata> getPathways(Collection<String> stIds) {
+		if (stIds.isEmpty()) return Collections.emptyMap();
+		return client.query(PATHWAYS_QUERY)
+				.bindAll(Map.of("stIds", new ArrayList<>(stIds)))
+				.fetchAs(PathwayMetadata.class)
+				.mappedBy((typeSystem, record) -> toPathway(record))
+				.all().stream()
+				.collect(Collectors.toMap(PathwayMetadata::getStId, Function.identity()));
+	}
+
+	/**
+	 * Finds, in one query, the diagram where each of the pathways in stIds is
+	 * represented: its own diagram if it has one, otherwise the diagram of the
+	 * closest ancestor having one. When ancestors at the same distance have a
+	 * diagram, as happens with pathways in more than one hierarchy, the one
+	 * with the lowest stId is chosen, so the result does not depend on the
+	 * order of the rows.
+	 *
+	 * @return a map stId to diagram. Pathways without diagram are not present
+	 * in the map
+	 */
+	@Override
+	public Map<String, DiagramMetadata> getDiagrams(Collection<String> stIds) {
+		if (stIds.isEmpty()) return Collections.emptyMap();
+		final Map<String, DiagramMetadata> diagrams = new HashMap<>();
+		client.query(DIAGRAMS_QUERY)
+				.bindAll(Map.of("stIds", new ArrayList<>(stIds)))
+				.fetch().all()
+				.forEach(row -> {
+					final String stId = (String) row.get("stId");
+					final String diagramStId = (String) row.get("diagramStId");
+					if (diagramStId == null) return;
+					final List<String> events = diagramStId.equals(stId)
+							? new ArrayList<>()
+							: new ArrayList<>(Collections.singletonList(stId));
+					diagrams.put(stId, new DiagramMetadata(diagramStId, events));
+				});
+		return diagrams;
+	}
+
+	/**
+	 * @return a map dbId to display name of every species in the database
+	 */
+	public Map<Long, String> getAllSpecies() {
+		final Map<Long, String> species = new HashMap<>();
+		client.query(SPECIES_QUERY).fetch().all()
+				.forEach(row -> species.put(((Number) row.get("dbId")).longValue(), (String) row.get("displayName")));
+		return species;
+	}
+
+	/**
+	 * @return the stId of every pathway in the database
+	 */
+	public Collection<String> getAllPathways() {
+		return client.query(ALL_PATHWAYS_QUERY).fetchAs(String.class).all();
+	}
+
+	private static PathwayMetadata toPathway(Record record) {
+		final PathwayMetadata pathway = new PathwayMetadata();
+		pathway.setStId(record.get("stId").asString());
+		pathway.setDisplayName(asString(record.get("displayName")));
+		pathway.setCompartments(sorted(record.get("compartments"), value -> asString(value.get("name"))));
+		pathway.setDiseases(sorted(record.get("diseases"), value -> asString(value.get("name"))));
+		pathway.setInferredFrom(sorted(record.get("inferredFrom"), value -> asString(value.get("name"))));
+		pathway.setSummations(sorted(record.get("summations"), value -> new SummationMetadata(
+				value.get("dbId").isNull() ? null : value.get("dbId").asLong(),
+				asString(value.get("text")))));
+		pathway.setReferences(sorted(record.get("references"), GraphMetadataProvider::toPublication));
+		pathway.setEdits(record.get("edits").asList(value -> new EditMetadata(
+				asString(value.get("type")),
+				asString(value.get("dateTime")),
+				sorted(value.get("authors"), GraphMetadataProvider::toPerson))));
+		return pathway;
+	}
+
+	private static PublicationMetadata toPublication(Value value) {
+		final PublicationMetadata publication = new PublicationMetadata();
+		publication.setSchemaClass(asString(value.get("schemaClass")));
+		publication.setDisplayName(asString(value.get("displayName")));
+		publication.setTitle(asString(value.get("title")));
+		publication.setYear(asString(value.get("year")));
+		publication.setJournal(asString(value.get("journal")));
+		publication.setVolume(asString(value.get("volume")));
+		publication.setPages(asString(value.get("pages")));
+		publication.setUrl(asString(value.get("url")));
+		publication.setChapterTitle(asString(value.get("chapterTitle")));
+		publication.setAuthors(sorted(value.get("authors"), GraphMetadataProvider::toPerson));
+		return publication;
+	}
+
+	private static PersonMetadata toPerson(Value value) {
+		return new PersonMetadata(
+				asString(value.get("surname")),
+				asString(value.get("firstname")),
+				asString(value.get("initial")));
+	}
+
+	private static <T> List<T> sorted(Value list, Function<Value, T> mapper) {
+		return list.asList(Function.identity()).stream()
+				.sorted(BY_ORDER)
+				.map(mapper)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Numeric properties, such as year or volume, are converted to text.
+	 */
+	private static String asString(Value value) {
+		return value == null || value.isNull() ? null : String.valueOf(value.asObject());
+	}
+}
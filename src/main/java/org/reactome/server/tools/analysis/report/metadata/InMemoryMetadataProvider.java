@@ -0,0 +1,123 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Keeps all the report metadata in memory, so reports can be created with no
+ * graph database. Metadata is read from a JSON fixture with this shape:
+ * <pre><code>
+ * {
+ *   "dbVersion": 79,
+ *   "species": {"48887": "Homo sapiens"},
+ *   "pathways": [{"stId": "R-HSA-199418", "displayName": "Negative regulation of the PI3K/AKT network", ...}],
+ *   "diagrams": {"R-HSA-199418": {"diagramStId": "R-HSA-1257604", "events": ["R-HSA-199418"]}}
+ * }
+ * </code></pre>
+ * Fixtures can be created from any other provider with {@link
+ * #copyOf(ReportMetadataProvider, Collection, Collection)} and {@link
+ * #write(OutputStream)}.
+ */
+public class InMemoryMetadataProvider implements ReportMetadataProvider {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+			.enable(SerializationFeature.INDENT_OUTPUT);
+
+	private final int dbVersion;
+	private final Map<Long, String> species;
+	private final Map<String, PathwayMetadata> pathways;
+	private final Map<String, DiagramMetadata> diagrams;
+
+	public InMemoryMetadataProvider(int dbVersion, Map<Long, String> species, Map<String, PathwayMetadata> pathways, Map<String, DiagramMetadata> diagrams) {
+		this.dbVersion = dbVersion;
+		this.species = new HashMap<>(species);
+		this.pathways = new HashMap<>(pathways);
+		this.diagrams = new HashMap<>(diagrams);
+	}
+
+	public static InMemoryMetadataProvider read(InputStream inputStream) throws IOException {
+		final Fixture fixture = MAPPER.readValue(inputStream, Fixture.class);
+		final Map<String, PathwayMetadata> pathways = new HashMap<>();
+		for (PathwayMetadata pathway : fixture.pathways) pathways.put(pathway.getStId(), pathway);
+		return new InMemoryMetadataProvider(fixture.dbVersion, fixture.species, pathways, fixture.diagrams);
+	}
+
+	public static InMemoryMetadataProvider read(Path path) throws IOException {
+		try (InputStream inputStream = Files.newInputStream(path)) {
+			return read(inputStream);
+		}
+	}
+
+	/**
+	 * Copies from source the metadata of the given species and pathways.
+	 */
+	public static InMemoryMetadataProvider copyOf(ReportMetadataProvider source, Collection<Long> species, Collection<String> stIds) {
+		final Map<Long, String> names = new HashMap<>();
+		for (Long dbId : species) {
+			final String name = source.getSpeciesName(dbId);
+			if (name != null) names.put(dbId, name);
+		}
+		return new InMemoryMetadataProvider(source.getDBVersion(), names, source.getPathways(stIds), source.getDiagrams(stIds));
+	}
+
+	/**
+	 * Writes the metadata as a JSON fixture, readable by {@link
+	 * #read(InputStream)}.
+	 */
+	public void write(OutputStream outputStream) throws IOException {
+		final Fixture fixture = new Fixture();
+		fixture.dbVersion = dbVersion;
+		fixture.species = new TreeMap<>(species);
+		fixture.pathways = new ArrayList<>(new TreeMap<>(pathways).values());
+		fixture.diagrams = new TreeMap<>(diagrams);
+		MAPPER.writeValue(outputStream, fixture);
+	}
+
+	@Override
+	public String getSpeciesName(Long dbId) {
+		return dbId == null ? null : species.get(dbId);
+	}
+
+	@Override
+	public int getDBVersion() {
+		return dbVersion;
+	}
+
+	@Override
+	public Map<String, PathwayMetadata> getPathways(Collection<String> stIds) {
+		return select(pathways, stIds);
+	}
+
+	@Override
+	public Map<String, DiagramMetadata> getDiagrams(Collection<String> stIds) {
+		return select(diagrams, stIds);
+	}
+
+	private static <T> Map<String, T> select(Map<String, T> map, Collection<String> stIds) {
+		final Map<String, T> selection = new HashMap<>();
+		for (String stId : stIds) {
+			final T value = map.get(stId);
+			if (value != null) selection.put(stId, value);
+		}
+		return selection;
+	}
+
+	/**
+	 * JSON representation of the metadata.
+	 */
+	private static class Fixture {
+		public int dbVersion;
+		public Map<Long, String> species = new HashMap<>();
+		public List<PathwayMetadata> pathways = new ArrayList<>();
+		public Map<String, DiagramMetadata> diagrams = new HashMap<>();
+	}
+}
@@ -0,0 +1,119 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Remembers every answer of another provider, so reports created together,
+ * such as the variants of one analysis, look up each species, pathway and
+ * diagram only once. Concurrent requests of the same data share a single
+ * lookup. Nothing is ever evicted, so it must not outlive those reports.
+ * Failed lookups are not remembered.
+ */
+public class MemoizingMetadataProvider implements ReportMetadataProvider {
+
+	private final ReportMetadataProvider provider;
+	private final Map<Long, CompletableFuture<String>> species = new ConcurrentHashMap<>();
+	private final Map<String, CompletableFuture<PathwayMetadata>> pathways = new ConcurrentHashMap<>();
+	private final Map<String, CompletableFuture<DiagramMetadata>> diagrams = new ConcurrentHashMap<>();
+	private final AtomicReference<CompletableFuture<Integer>> dbVersion = new AtomicReference<>();
+
+	public MemoizingMetadataProvider(ReportMetadataProvider provider) {
+		this.provider = provider;
+	}
+
+	@Override
+	public String getSpeciesName(Long dbId) {
+		if (dbId == null) return provider.getSpeciesName(null);
+		final CompletableFuture<String> load = new CompletableFuture<>();
+		final CompletableFuture<String> running = species.putIfAbsent(dbId, load);
+		if (running != null) return join(running);
+		try {
+			final String name = provider.getSpeciesName(dbId);
+			load.complete(name);
+			return name;
+		} catch (RuntimeException e) {
+			species.remove(dbId, load);
+			load.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	@Override
+	public int getDBVersion() {
+		final CompletableFuture<Integer> load = new CompletableFuture<>();
+		if (!dbVersion.compareAndSet(null, load)) {
+			final CompletableFuture<Integer> running = dbVersion.get();
+			// null if the running lookup has just failed
+			if (running != null) return join(running);
+			return getDBVersion();
+		}
+		try {
+			final int version = provider.getDBVersion();
+			load.complete(version);
+			return version;
+		} catch (RuntimeException e) {
+			dbVersion.compareAndSet(load, null);
+			load.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	@Override
+	public Map<String, PathwayMetadata> getPathways(Collection<String> stIds) {
+		return fetch(stIds, pathways, provider::getPathways);
+	}
+
+	@Override
+	public Map<String, DiagramMetadata> getDiagrams(Collection<String> stIds) {
+		return fetch(stIds, diagrams, provider::getDiagrams);
+	}
+
+	/**
+	 * Looks up, in one call, the stIds never asked before, and waits for the
+	 * ones other threads are looking up. stIds not found are remembered too,
+	 * as null.
+	 */
+	private static <T> Map<String, T> fetch(Collection<String> stIds, Map<String, CompletableFuture<T>> known, Function<Collection<String>, Map<String, T>> lookup) {
+		final Map<String, CompletableFuture<T>> loads = new LinkedHashMap<>();
+		final Map<String, CompletableFuture<T>> values = new LinkedHashMap<>();
+		for (String stId : stIds) {
+			if (values.containsKey(stId)) continue;
+			final CompletableFuture<T> load = new CompletableFuture<>();
+			final CompletableFuture<T> running = known.putIfAbsent(stId, load);
+			if (running == null) loads.put(stId, load);
+			values.put(stId, running == null ? load : running);
+		}
+		if (!loads.isEmpty()) {
+			try {
+				final Map<String, T> found = lookup.apply(new ArrayList<>(loads.keySet()));
+				loads.forEach((stId, load) -> load.complete(found.get(stId)));
+			} catch (RuntimeException e) {
+				loads.forEach((stId, load) -> {
+					known.remove(stId, load);
+					load.completeExceptionally(e);
+				});
+				throw e;
+			}
+		}
+		final Map<String, T> result = new HashMap<>();
+		values.forEach((stId, value) -> {
+			final T metadata = join(value);
+			if (metadata != null) result.put(stId, metadata);
+		});
+		return result;
+	}
+
+	private static <V> V join(CompletableFuture<V> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Graph database data of a pathway needed by the report: names of related
+ * objects, summations, literature references and edit history. Lists are never
+ * null.
+ */
+public class PathwayMetadata {
+
+	private String stId;
+	private String displayName;
+	private List<String> compartments = new ArrayList<>();
+	private List<String> diseases = new ArrayList<>();
+	private List<String> inferredFrom = new ArrayList<>();
+	private List<SummationMetadata> summations = new ArrayList<>();
+	private List<PublicationMetadata> references = new ArrayList<>();
+	private List<EditMetadata> edits = new ArrayList<>();
+
+	public String getStId() {
+		return stId;
+	}
+
+	public void setStId(String stId) {
+		this.stId = stId;
+	}
+
+	public String getDisplayName() {
+		return displayName;
+	}
+
+	public void setDisplayName(String displayName) {
+		this.displayName = displayName;
+	}
+
+	/**
+	 * @return display names of the cellular compartments
+	 */
+	public List<String> getCompartments() {
+		return compartments;
+	}
+
+	public void setCompartments(List<String> compartments) {
+		this.compartments = compartments;
+	}
+
+	/**
+	 * @return display names of the diseases
+	 */
+	public List<String> getDiseases() {
+		return diseases;
+	}
+
+	public void setDiseases(List<String> diseases) {
+		this.diseases = diseases;
+	}
+
+	/**
+	 * @return display names of the events this pathway is inferred from
+	 */
+	public List<String> getInferredFrom() {
+		return inferredFrom;
+	}
+
+	public void setInferredFrom(List<String> inferredFrom) {
+		this.inferredFrom = inferredFrom;
+	}
+
+	public List<SummationMetadata> getSummations() {
+		return summations;
+	}
+
+	public void setSummations(List<SummationMetadata> summations) {
+		this.summations = summations;
+	}
+
+	public List<PublicationMetadata> getReferences() {
+		return references;
+	}
+
+	public void setReferences(List<PublicationMetadata> references) {
+		this.references = references;
+	}
+
+	public List<EditMetadata> getEdits() {
+		return edits;
+	}
+
+	public void setEdits(List<EditMetadata> edits) {
+		this.edits = edits;
+	}
+}
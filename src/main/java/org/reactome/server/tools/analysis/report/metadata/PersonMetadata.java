@@ -0,0 +1,62 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+import java.util.Objects;
+
+/**
+ * Name of an author or curator, as needed to compile citations and edit
+ * histories.
+ */
+public class PersonMetadata {
+
+	private String surname;
+	private String firstname;
+	private String initial;
+
+	public PersonMetadata() {
+	}
+
+	public PersonMetadata(String surname, String firstname, String initial) {
+		this.surname = surname;
+		this.firstname = firstname;
+		this.initial = initial;
+	}
+
+	public String getSurname() {
+		return surname;
+	}
+
+	public void setSurname(String surname) {
+		this.surname = surname;
+	}
+
+	public String getFirstname() {
+		return firstname;
+	}
+
+	public void setFirstname(String firstname) {
+		this.firstname = firstname;
+	}
+
+	public String getInitial() {
+		return initial;
+	}
+
+	public void setInitial(String initial) {
+		this.initial = initial;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		final PersonMetadata that = (PersonMetadata) o;
+		return Objects.equals(surname, that.surname)
+				&& Objects.equals(firstname, that.firstname)
+				&& Objects.equals(initial, that.initial);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(surname, firstname, initial);
+	}
+}
@@ -0,0 +1,111 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A literature reference of a pathway. schemaClass tells which of the
+ * Publication subclasses (LiteratureReference, Book or URL) this data comes
+ * from, so the same fields are used as in the graph model.
+ */
+public class PublicationMetadata {
+
+	public static final String LITERATURE_REFERENCE = "LiteratureReference";
+	public static final String BOOK = "Book";
+	public static final String URL = "URL";
+
+	private String schemaClass;
+	private String displayName;
+	private String title;
+	private String year;
+	private String journal;
+	private String volume;
+	private String pages;
+	private String url;
+	private String chapterTitle;
+	private List<PersonMetadata> authors = new ArrayList<>();
+
+	public String getSchemaClass() {
+		return schemaClass;
+	}
+
+	public void setSchemaClass(String schemaClass) {
+		this.schemaClass = schemaClass;
+	}
+
+	public String getDisplayName() {
+		return displayName;
+	}
+
+	public void setDisplayName(String displayName) {
+		this.displayName = displayName;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public String getYear() {
+		return year;
+	}
+
+	public void setYear(String year) {
+		this.year = year;
+	}
+
+	public String getJournal() {
+		return journal;
+	}
+
+	public void setJournal(String journal) {
+		this.journal = journal;
+	}
+
+	public String getVolume() {
+		return volume;
+	}
+
+	public void setVolume(String volume) {
+		this.volume = volume;
+	}
+
+	public String getPages() {
+		return pages;
+	}
+
+	public void setPages(String pages) {
+		this.pages = pages;
+	}
+
+	/**
+	 * For a LiteratureReference, the link to the article. For a URL, the
+	 * uniform resource locator.
+	 */
+	public String getUrl() {
+		return url;
+	}
+
+	public void setUrl(String url) {
+		this.url = url;
+	}
+
+	public String getChapterTitle() {
+		return chapterTitle;
+	}
+
+	public void setChapterTitle(String chapterTitle) {
+		this.chapterTitle = chapterTitle;
+	}
+
+	public List<PersonMetadata> getAuthors() {
+		return authors;
+	}
+
+	public void setAuthors(List<PersonMetadata> authors) {
+		this.authors = authors;
+	}
+}
@@ -0,0 +1,36 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Source of the data that a report needs besides the analysis result:
+ * species names, database version, pathway details and diagrams. Reports
+ * request pathways and diagrams in bulk, so implementations should answer
+ * every stId in as few lookups as possible. Implementations must be thread
+ * safe.
+ */
+public interface ReportMetadataProvider {
+
+	/**
+	 * @return the display name of the species with dbId, or null if not found
+	 */
+	String getSpeciesName(Long dbId);
+
+	/**
+	 * @return Reactome's database version the metadata comes from
+	 */
+	int getDBVersion();
+
+	/**
+	 * @return a map stId to metadata. stIds not found are not present in the
+	 * map
+	 */
+	Map<String, PathwayMetadata> getPathways(Collection<String> stIds);
+
+	/**
+	 * @return a map stId to the diagram where the pathway is represented.
+	 * Pathways without diagram are not present in the map
+	 */
+	Map<String, DiagramMetadata> getDiagrams(Collection<String> stIds);
+}
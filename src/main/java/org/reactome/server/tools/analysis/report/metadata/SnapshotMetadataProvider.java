@@ -0,0 +1,286 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Reads the report metadata of one Reactome release from a binary snapshot
+ * file, memory-mapped when opened. Only the index (species names and the
+ * position of each pathway) is read at startup; pathways are decoded from the
+ * mapped file when a report asks for them, so no graph query is needed.
+ * <p>
+ * Snapshots are created with {@link #write(Path, int, Map, Collection,
+ * ReportMetadataProvider)}, usually through MetadataSnapshotMain. Layout of the
+ * file:
+ * <pre>
+ * int magic, int format, int dbVersion
+ * pathway records (pathway metadata followed by its diagram)
+ * index: species (long dbId, string name), pathways (string stId, long offset)
+ * long offset of the index
+ * </pre>
+ * Strings are stored as an int length followed by UTF-8 bytes, -1 for null.
+ * Lists are stored as an int size followed by their items.
+ */
+public class SnapshotMetadataProvider implements ReportMetadataProvider {
+
+	private static final int MAGIC = 0x52504D53; // RPMS
+	private static final int FORMAT = 1;
+	private static final int BATCH = 1000;
+
+	private final ByteBuffer buffer;
+	private final int dbVersion;
+	private final Map<Long, String> species = new HashMap<>();
+	private final Map<String, Integer> offsets = new HashMap<>();
+
+	private SnapshotMetadataProvider(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		final ByteBuffer reader = buffer.duplicate();
+		if (reader.getInt() != MAGIC) throw new IOException("Not a metadata snapshot");
+		final int format = reader.getInt();
+		if (format != FORMAT) throw new IOException("Unsupported metadata snapshot format " + format);
+		dbVersion = reader.getInt();
+		reader.position((int) reader.getLong(reader.limit() - Long.BYTES));
+		final int speciesCount = reader.getInt();
+		for (int i = 0; i < speciesCount; i++) species.put(reader.getLong(), readString(reader));
+		final int pathwayCount = reader.getInt();
+		for (int i = 0; i < pathwayCount; i++) offsets.put(readString(reader), (int) reader.getLong());
+	}
+
+	/**
+	 * Memory-maps the snapshot in file.
+	 */
+	public static SnapshotMetadataProvider open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) throw new IOException("Metadata snapshot too large " + file);
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new SnapshotMetadataProvider(buffer);
+		}
+	}
+
+	/**
+	 * Writes a snapshot of the given species and pathways, reading pathways
+	 * and diagrams from source in batches. The snapshot is written into a
+	 * temporary file and then moved to file, so readers never see a partial
+	 * snapshot.
+	 */
+	public static void write(Path file, int dbVersion, Map<Long, String> species, Collection<String> stIds, ReportMetadataProvider source) throws IOException {
+		final Path parent = file.toAbsolutePath().getParent();
+		final Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT);
+				out.writeInt(dbVersion);
+				final Map<String, Long> index = new LinkedHashMap<>();
+				final List<String> all = new ArrayList<>(new TreeSet<>(stIds));
+				for (int from = 0; from < all.size(); from += BATCH) {
+					final List<String> batch = all.subList(from, Math.min(all.size(), from + BATCH));
+					final Map<String, PathwayMetadata> pathways = source.getPathways(batch);
+					final Map<String, DiagramMetadata> diagrams = source.getDiagrams(batch);
+					for (String stId : batch) {
+						final PathwayMetadata pathway = pathways.get(stId);
+						if (pathway == null) continue;
+						index.put(stId, (long) out.size());
+						writePathway(out, pathway);
+						writeDiagram(out, diagrams.get(stId));
+					}
+				}
+				final long indexOffset = out.size();
+				out.writeInt(species.size());
+				for (Map.Entry<Long, String> entry : new TreeMap<>(species).entrySet()) {
+					out.writeLong(entry.getKey());
+					writeString(out, entry.getValue());
+				}
+				out.writeInt(index.size());
+				for (Map.Entry<String, Long> entry : index.entrySet()) {
+					writeString(out, entry.getKey());
+					out.writeLong(entry.getValue());
+				}
+				out.writeLong(indexOffset);
+			}
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	@Override
+	public String getSpeciesName(Long dbId) {
+		return dbId == null ? null : species.get(dbId);
+	}
+
+	@Override
+	public int getDBVersion() {
+		return dbVersion;
+	}
+
+	@Override
+	public Map<String, PathwayMetadata> getPathways(Collection<String> stIds) {
+		final Map<String, PathwayMetadata> pathways = new HashMap<>();
+		for (String stId : stIds) {
+			final ByteBuffer reader = reader(stId);
+			if (reader != null) pathways.put(stId, readPathway(reader));
+		}
+		return pathways;
+	}
+
+	@Override
+	public Map<String, DiagramMetadata> getDiagrams(Collection<String> stIds) {
+		final Map<String, DiagramMetadata> diagrams = new HashMap<>();
+		for (String stId : stIds) {
+			final ByteBuffer reader = reader(stId);
+			if (reader == null) continue;
+			readPathway(reader);
+			final DiagramMetadata diagram = readDiagram(reader);
+			if (diagram != null) diagrams.put(stId, diagram);
+		}
+		return diagrams;
+	}
+
+	/**
+	 * @return a reader positioned at the record of stId, or null if stId is not
+	 * in the snapshot. Every call gets its own reader, so concurrent reports do
+	 * not interfere.
+	 */
+	private ByteBuffer reader(String stId) {
+		final Integer offset = offsets.get(stId);
+		if (offset == null) return null;
+		final ByteBuffer reader = buffer.duplicate();
+		reader.position(offset);
+		return reader;
+	}
+
+	private static void writePathway(DataOutputStream out, PathwayMetadata pathway) throws IOException {
+		writeString(out, pathway.getStId());
+		writeString(out, pathway.getDisplayName());
+		writeList(out, pathway.getCompartments(), SnapshotMetadataProvider::writeString);
+		writeList(out, pathway.getDiseases(), SnapshotMetadataProvider::writeString);
+		writeList(out, pathway.getInferredFrom(), SnapshotMetadataProvider::writeString);
+		writeList(out, pathway.getSummations(), (o, summation) -> {
+			o.writeBoolean(summation.getDbId() != null);
+			if (summation.getDbId() != null) o.writeLong(summation.getDbId());
+			writeString(o, summation.getText());
+		});
+		writeList(out, pathway.getReferences(), (o, publication) -> {
+			writeString(o, publication.getSchemaClass());
+			writeString(o, publication.getDisplayName());
+			writeString(o, publication.getTitle());
+			writeString(o, publication.getYear());
+			writeString(o, publication.getJournal());
+			writeString(o, publication.getVolume());
+			writeString(o, publication.getPages());
+			writeString(o, publication.getUrl());
+			writeString(o, publication.getChapterTitle());
+			writeList(o, publication.getAuthors(), SnapshotMetadataProvider::writePerson);
+		});
+		writeList(out, pathway.getEdits(), (o, edit) -> {
+			writeString(o, edit.getType());
+			writeString(o, edit.getDateTime());
+			writeList(o, edit.getAuthors(), SnapshotMetadataProvider::writePerson);
+		});
+	}
+
+	private static PathwayMetadata readPathway(ByteBuffer in) {
+		final PathwayMetadata pathway = new PathwayMetadata();
+		pathway.setStId(readString(in));
+		pathway.setDisplayName(readString(in));
+		pathway.setCompartments(readList(in, SnapshotMetadataProvider::readString));
+		pathway.setDiseases(readList(in, SnapshotMetadataProvider::readString));
+		pathway.setInferredFrom(readList(in, SnapshotMetadataProvider::readString));
+		pathway.setSummations(readList(in, i -> {
+			final Long dbId = i.get() != 0 ? i.getLong() : null;
+			return new SummationMetadata(dbId, readString(i));
+		}));
+		pathway.setReferences(readList(in, i -> {
+			final PublicationMetadata publication = new PublicationMetadata();
+			publication.setSchemaClass(readString(i));
+			publication.setDisplayName(readString(i));
+			publication.setTitle(readString(i));
+			publication.setYear(readString(i));
+			publication.setJournal(readString(i));
+			publication.setVolume(readString(i));
+			publication.setPages(readString(i));
+			publication.setUrl(readString(i));
+			publication.setChapterTitle(readString(i));
+			publication.setAuthors(readList(i, SnapshotMetadataProvider::readPerson));
+			return publication;
+		}));
+		pathway.setEdits(readList(in, i -> {
+			final String type = readString(i);
+			final String dateTime = readString(i);
+			return new EditMetadata(type, dateTime, readList(i, SnapshotMetadataProvider::readPerson));
+		}));
+		return pathway;
+	}
+
+	private static void writeDiagram(DataOutputStream out, DiagramMetadata diagram) throws IOException {
+		out.writeBoolean(diagram != null);
+		if (diagram == null) return;
+		writeString(out, diagram.getDiagramStId());
+		writeList(out, diagram.getEvents(), SnapshotMetadataProvider::writeString);
+	}
+
+	private static DiagramMetadata readDiagram(ByteBuffer in) {
+		if (in.get() == 0) return null;
+		final String diagramStId = readString(in);
+		return new DiagramMetadata(diagramStId, readList(in, SnapshotMetadataProvider::readString));
+	}
+
+	private static void writePerson(DataOutputStream out, PersonMetadata person) throws IOException {
+		writeString(out, person.getSurname());
+		writeString(out, person.getFirstname());
+		writeString(out, person.getInitial());
+	}
+
+	private static PersonMetadata readPerson(ByteBuffer in) {
+		final String surname = readString(in);
+		final String firstname = readString(in);
+		return new PersonMetadata(surname, firstname, readString(in));
+	}
+
+	private static void writeString(DataOutputStream out, String text) throws IOException {
+		if (text == null) {
+			out.writeInt(-1);
+			return;
+		}
+		final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer in) {
+		final int length = in.getInt();
+		if (length < 0) return null;
+		final byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static <T> void writeList(DataOutputStream out, List<T> list, ItemWriter<T> writer) throws IOException {
+		if (list == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(list.size());
+		for (T item : list) writer.write(out, item);
+	}
+
+	private static <T> List<T> readList(ByteBuffer in, Function<ByteBuffer, T> reader) {
+		final int size = in.getInt();
+		if (size < 0) return null;
+		final List<T> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) list.add(reader.apply(in));
+		return list;
+	}
+
+	@FunctionalInterface
+	private interface ItemWriter<T> {
+		void write(DataOutputStream out, T item) throws IOException;
+	}
+}
@@ -0,0 +1,34 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+/**
+ * Text of a Summation. Text is in HTML format.
+ */
+public class SummationMetadata {
+
+	private Long dbId;
+	private String text;
+
+	public SummationMetadata() {
+	}
+
+	public SummationMetadata(Long dbId, String text) {
+		this.dbId = dbId;
+		this.text = text;
+	}
+
+	public Long getDbId() {
+		return dbId;
+	}
+
+	public void setDbId(Long dbId) {
+		this.dbId = dbId;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public void setText(String text) {
+		this.text = text;
+	}
+}
@@ -0,0 +1,34 @@
+package org.reactome.server.tools.analysis.report.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the bytes written to the wrapped stream.
+ */
+public class CountingOutputStream extends FilterOutputStream {
+
+	private final AtomicLong count = new AtomicLong();
+
+	public CountingOutputStream(OutputStream out) {
+		super(out);
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		out.write(b);
+		count.incrementAndGet();
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		out.write(b, off, len);
+		count.addAndGet(len);
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+}
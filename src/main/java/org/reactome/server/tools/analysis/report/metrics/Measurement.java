@@ -0,0 +1,51 @@
+package org.reactome.server.tools.analysis.report.metrics;
+
+/**
+ * Wall time, bytes allocated by the measuring thread and bytes written to the
+ * report output while measuring.
+ */
+public class Measurement {
+
+	private final long nanos;
+	private final long allocatedBytes;
+	private final long outputBytes;
+
+	public Measurement(long nanos, long allocatedBytes, long outputBytes) {
+		this.nanos = nanos;
+		this.allocatedBytes = allocatedBytes;
+		this.outputBytes = outputBytes;
+	}
+
+	public long getNanos() {
+		return nanos;
+	}
+
+	public long getMillis() {
+		return nanos / 1_000_000;
+	}
+
+	/**
+	 * @return bytes allocated by the thread that took the measurement, or -1
+	 * if the JVM does not support allocation accounting
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	/**
+	 * @return bytes written to the report output. When pathways are rendered
+	 * in parallel, this includes bytes written by other threads
+	 */
+	public long getOutputBytes() {
+		return outputBytes;
+	}
+
+	@Override
+	public String toString() {
+		return "Measurement{" +
+				"millis=" + getMillis() +
+				", allocatedBytes=" + allocatedBytes +
+				", outputBytes=" + outputBytes +
+				'}';
+	}
+}
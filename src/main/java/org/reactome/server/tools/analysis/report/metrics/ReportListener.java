@@ -0,0 +1,61 @@
+package org.reactome.server.tools.analysis.report.metrics;
+
+/**
+ * Receives the measurements of a report. A new listener is created for every
+ * report (see AnalysisReport.setListenerFactory), but measurements may come
+ * from several threads when pathways are rendered in parallel, so
+ * implementations must be thread safe. Every method does nothing by default.
+ */
+public interface ReportListener {
+
+	/**
+	 * Parts of a report that are measured.
+	 */
+	enum Stage {
+		/** A lookup in the metadata provider (graph database by default). */
+		METADATA,
+		/** Computation of the model of a section, concurrent with other sections. */
+		PREPARE,
+		/** Layout of a section, including the wait for its model. */
+		SECTION,
+		/** Creation of the detail block of a pathway, including its diagram export. Named by pathway stId. */
+		PATHWAY,
+		/** Export of the diagram of a pathway. Named by diagram stId. */
+		DIAGRAM_EXPORT,
+		/** Copy of an exported diagram into the report. Named by diagram stId. */
+		DIAGRAM_INSERT,
+		/** Export of the fireworks. */
+		FIREWORKS,
+		/** Flush of the report document. */
+		FLUSH,
+		/** Close of the report document, which writes the remaining objects. */
+		CLOSE,
+		/** Rewrite of a closed deterministic report into its destination. */
+		NORMALIZE
+	}
+
+	ReportListener NO_OP = new ReportListener() {
+	};
+
+	default void reportStarted(String token) {
+	}
+
+	/**
+	 * @param stage       part of the report measured
+	 * @param name        name of the section, stId of the pathway, name of
+	 *                    the lookup...
+	 * @param measurement what it took
+	 */
+	default void measured(Stage stage, String name, Measurement measurement) {
+	}
+
+	default void reportFinished(String token, Measurement measurement) {
+	}
+
+	/**
+	 * Called instead of {@link #reportFinished(String, Measurement)} when the
+	 * report could not be created.
+	 */
+	default void reportFailed(String token, Measurement measurement, Throwable cause) {
+	}
+}
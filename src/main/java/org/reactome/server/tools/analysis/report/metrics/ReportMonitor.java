@@ -0,0 +1,135 @@
+package org.reactome.server.tools.analysis.report.metrics;
+
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Takes the measurements of one report and sends them to its {@link
+ * ReportListener}.
+ * <pre><code>
+ * final ReportMonitor.Timer timer = monitor.start(Stage.SECTION, "CoverPage");
+ * try {
+ *     ...
+ * } finally {
+ *     timer.stop();
+ * }
+ * </code></pre>
+ */
+public class ReportMonitor {
+
+	/**
+	 * A monitor that measures nothing.
+	 */
+	public static final ReportMonitor NO_OP = new ReportMonitor(ReportListener.NO_OP, null);
+
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+	private static final boolean ALLOCATION_SUPPORTED = isAllocationSupported();
+
+	private final ReportListener listener;
+	private final boolean enabled;
+	private volatile CountingOutputStream output;
+
+	/**
+	 * @param output stream wrapping the report destination, to count output
+	 *               bytes. May be null
+	 */
+	public ReportMonitor(ReportListener listener, CountingOutputStream output) {
+		this.listener = listener;
+		this.output = output;
+		this.enabled = listener != ReportListener.NO_OP;
+	}
+
+	public ReportListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Counts, from now on, the bytes written to stream as the report output.
+	 *
+	 * @return the stream to write the report to
+	 */
+	public OutputStream count(OutputStream stream) {
+		if (!enabled) return stream;
+		output = new CountingOutputStream(stream);
+		return output;
+	}
+
+	public Timer start(ReportListener.Stage stage, String name) {
+		return new Timer(stage, name);
+	}
+
+	/**
+	 * Measures from now, to be finished with {@link #finish(Timer, String)} or
+	 * {@link #fail(Timer, String, Throwable)}.
+	 */
+	public Timer startReport(String token) {
+		listener.reportStarted(token);
+		return new Timer(null, token);
+	}
+
+	public void finish(Timer timer, String token) {
+		listener.reportFinished(token, timer.measure());
+	}
+
+	public void fail(Timer timer, String token, Throwable cause) {
+		listener.reportFailed(token, timer.measure(), cause);
+	}
+
+	private long outputBytes() {
+		final CountingOutputStream output = this.output;
+		return output == null ? 0 : output.getCount();
+	}
+
+	private static long allocatedBytes() {
+		if (!ALLOCATION_SUPPORTED) return -1;
+		return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static boolean isAllocationSupported() {
+		try {
+			if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+				final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+				if (bean.isThreadAllocatedMemorySupported()) {
+					if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+					return true;
+				}
+			}
+		} catch (UnsupportedOperationException | SecurityException | NoClassDefFoundError e) {
+			LoggerFactory.getLogger(ReportMonitor.class).warn("Thread allocation accounting not available", e);
+		}
+		return false;
+	}
+
+	public class Timer {
+		private final ReportListener.Stage stage;
+		private final String name;
+		private final long nanos;
+		private final long allocated;
+		private final long written;
+
+		private Timer(ReportListener.Stage stage, String name) {
+			this.stage = stage;
+			this.name = name;
+			// Without listener, timers cost nothing
+			this.nanos = enabled ? System.nanoTime() : 0;
+			this.allocated = enabled ? allocatedBytes() : -1;
+			this.written = enabled ? outputBytes() : 0;
+		}
+
+		/**
+		 * Sends the measurement to the listener. Must be called from the
+		 * thread that started the timer.
+		 */
+		public void stop() {
+			if (enabled) listener.measured(stage, name, measure());
+		}
+
+		private Measurement measure() {
+			final long allocatedNow = allocated < 0 ? -1 : allocatedBytes() - allocated;
+			return new Measurement(System.nanoTime() - nanos, allocatedNow, outputBytes() - written);
+		}
+	}
+}
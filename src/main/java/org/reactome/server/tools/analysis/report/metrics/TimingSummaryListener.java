@@ -0,0 +1,132 @@
+package org.reactome.server.tools.analysis.report.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Logs, when a report finishes, a JSON summary with the total of the report,
+ * every section, every stage, the slowest pathways (creation of their detail
+ * block) and the slowest diagrams (export plus insertion, by diagram stId).
+ * Pathways taking more than slowPathwayMillis are also logged as warnings,
+ * with their token, so pathological tokens can be found in production logs.
+ * <pre><code>
+ * report.setListenerFactory(TimingSummaryListener::new);
+ * </code></pre>
+ */
+public class TimingSummaryListener implements ReportListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(TimingSummaryListener.class);
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final int slowestPathways;
+	private final long slowPathwayMillis;
+
+	private final Map<String, Measurement> sections = new LinkedHashMap<>();
+	private final Map<Stage, long[]> stages = new EnumMap<>(Stage.class);
+	private final Map<String, Long> pathways = new HashMap<>();
+	private final Map<String, Long> diagrams = new HashMap<>();
+	private Map<String, Object> summary;
+
+	public TimingSummaryListener() {
+		this(5, 2000);
+	}
+
+	/**
+	 * @param slowestPathways   number of pathways listed in the summary
+	 * @param slowPathwayMillis pathways taking longer are logged as warnings
+	 */
+	public TimingSummaryListener(int slowestPathways, long slowPathwayMillis) {
+		this.slowestPathways = slowestPathways;
+		this.slowPathwayMillis = slowPathwayMillis;
+	}
+
+	@Override
+	public synchronized void measured(Stage stage, String name, Measurement measurement) {
+		final long[] total = stages.computeIfAbsent(stage, s -> new long[3]);
+		total[0]++;
+		total[1] += measurement.getNanos();
+		total[2] += Math.max(0, measurement.getAllocatedBytes());
+		switch (stage) {
+			case SECTION:
+				sections.put(name, measurement);
+				break;
+			case PATHWAY:
+				pathways.merge(name, measurement.getNanos(), Long::sum);
+				break;
+			case DIAGRAM_EXPORT:
+			case DIAGRAM_INSERT:
+				diagrams.merge(name, measurement.getNanos(), Long::sum);
+				break;
+			default:
+		}
+	}
+
+	@Override
+	public void reportFinished(String token, Measurement measurement) {
+		log(token, measurement, null);
+	}
+
+	@Override
+	public void reportFailed(String token, Measurement measurement, Throwable cause) {
+		log(token, measurement, cause);
+	}
+
+	/**
+	 * @return the summary of the report, or null if it has not finished yet
+	 */
+	public synchronized Map<String, Object> getSummary() {
+		return summary;
+	}
+
+	private synchronized void log(String token, Measurement measurement, Throwable cause) {
+		summary = new LinkedHashMap<>();
+		summary.put("token", token);
+		summary.put("status", cause == null ? "ok" : "failed");
+		summary.put("millis", measurement.getMillis());
+		summary.put("allocatedBytes", measurement.getAllocatedBytes());
+		summary.put("outputBytes", measurement.getOutputBytes());
+		final Map<String, Object> sectionSummary = new LinkedHashMap<>();
+		sections.forEach((name, m) -> sectionSummary.put(name, toMap(m)));
+		summary.put("sections", sectionSummary);
+		final Map<String, Object> stageSummary = new LinkedHashMap<>();
+		stages.forEach((stage, total) -> {
+			final Map<String, Object> map = new LinkedHashMap<>();
+			map.put("count", total[0]);
+			map.put("millis", total[1] / 1_000_000);
+			map.put("allocatedBytes", total[2]);
+			stageSummary.put(stage.name().toLowerCase(Locale.ENGLISH), map);
+		});
+		summary.put("stages", stageSummary);
+		summary.put("slowestPathways", slowest(pathways));
+		summary.put("slowestDiagrams", slowest(diagrams));
+		try {
+			logger.info("Report timing {}", MAPPER.writeValueAsString(summary));
+		} catch (JsonProcessingException e) {
+			logger.info("Report timing {}", summary);
+		}
+		pathways.forEach((stId, nanos) -> {
+			if (nanos / 1_000_000 > slowPathwayMillis)
+				logger.warn("Slow pathway {} in report {}: {}ms", stId, token, nanos / 1_000_000);
+		});
+	}
+
+	private Map<String, Long> slowest(Map<String, Long> nanos) {
+		return nanos.entrySet().stream()
+				.sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+				.limit(slowestPathways)
+				.collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue() / 1_000_000, (a, b) -> a, LinkedHashMap::new));
+	}
+
+	private static Map<String, Object> toMap(Measurement measurement) {
+		final Map<String, Object> map = new LinkedHashMap<>();
+		map.put("millis", measurement.getMillis());
+		map.put("allocatedBytes", measurement.getAllocatedBytes());
+		map.put("outputBytes", measurement.getOutputBytes());
+		return map;
+	}
+}
@@ -10,18 +10,17 @@ import org.reactome.server.tools.analysis.report.style.PdfProfile;
 import org.reactome.server.tools.analysis.report.util.HtmlParser;
 import org.reactome.server.tools.analysis.report.util.PdfUtils;
 
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
 import java.util.Collection;
-import java.util.Date;
 
 /**
  * @author Chuan-Deng dengchuanbio@gmail.com
  */
-public class CoverPage implements Section {
-	private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("dd/MM/yyyy");
+public class CoverPage implements Section<Void> {
+	private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
 	@Override
-	public void render(Document document, PdfProfile profile, AnalysisData analysisData) {
+	public void render(Document document, PdfProfile profile, AnalysisData analysisData, Void model) {
 		document.add(Images.getLogo().scaleToFit(100, 100).setHorizontalAlignment(HorizontalAlignment.LEFT));
 		// Empty space
 		document.add(profile.getTitle(""));
@@ -34,8 +33,8 @@ public class CoverPage implements Section {
 
 		final String text = PdfUtils.getProperty("cover.page",
 				analysisData.getName(),
-				AnalysisData.getDBVersion(),
-				DATE_FORMAT.format(new Date()),
+				analysisData.getDBVersion(),
+				DATE_FORMAT.format(analysisData.getDate()),
 				link, link);
 
 		final Collection<Paragraph> paragraphs = HtmlParser.parseText(profile, text);
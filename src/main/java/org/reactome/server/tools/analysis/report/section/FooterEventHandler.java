@@ -9,6 +9,8 @@ import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Paragraph;
 import org.reactome.server.tools.analysis.report.style.PdfProfile;
 
+import java.util.Locale;
+
 /**
  * Event handler to add the footer text and page number.
  *
@@ -33,7 +35,7 @@ public class FooterEventHandler implements IEventHandler {
 
 		final int pageNumber = document.getPdfDocument().getPageNumber(page);
 		if (pageNumber <= 2) return;  // Cover page and table of content
-		final String paging = String.format("Page %d", pageNumber - 1);
+		final String paging = String.format(Locale.ENGLISH, "Page %d", pageNumber - 1);
 		final float yCenter = document.getBottomMargin() * 0.5f;
 		final float width = page.getMediaBox().getWidth();
 		final float pagingWidth = profile.getRegularFont().getWidth(paging, profile.getFontSize()) + 1;
@@ -2,13 +2,13 @@ package org.reactome.server.tools.analysis.report.section;
 
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.AreaBreak;
-import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.UnitValue;
 import org.reactome.server.analysis.core.result.model.IdentifierSummary;
 import org.reactome.server.tools.analysis.report.AnalysisData;
 import org.reactome.server.tools.analysis.report.style.PdfProfile;
 import org.reactome.server.tools.analysis.report.util.PdfUtils;
 
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -16,20 +16,24 @@ import java.util.stream.Collectors;
 /**
  * @author Chuan-Deng dengchuanbio@gmail.com
  */
-public class IdentifierNotFound implements Section {
+public class IdentifierNotFound implements Section<List<IdentifierSummary>> {
 
 	@Override
-	public void render(Document document, PdfProfile profile, AnalysisData analysisData) {
-		final List<IdentifierSummary> sorted = analysisData.getResult().getNotFoundIdentifiers().stream()
+	public List<IdentifierSummary> prepare(PdfProfile profile, AnalysisData analysisData) {
+		return analysisData.getResult().getNotFoundIdentifiers().stream()
 				.sorted(Comparator.comparing(IdentifierSummary::getId))
 				.distinct()
-				.collect(Collectors.toList());
+				.collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+	}
+
+	@Override
+	public void render(Document document, PdfProfile profile, AnalysisData analysisData, List<IdentifierSummary> sorted) {
 		if (sorted.isEmpty()) return;
 		document.add(new AreaBreak());
 		document.add(profile.getH1("Identifiers not found").setDestination("not-found"));
 		document.add(profile.getParagraph(PdfUtils.getProperty("identifiers.not.found.section", sorted.size())));
-		final Table table = new Table(UnitValue.createPercentArray(8));
-		table.useAllAvailableWidth();
+		final TableWriter table = TableWriter.streaming(document, UnitValue.createPercentArray(8));
+		table.getTable().useAllAvailableWidth();
 		int i = 0;
 		int row = 0;
 		for (IdentifierSummary summary : sorted) {
@@ -39,6 +43,6 @@ public class IdentifierNotFound implements Section {
 		}
 		final int n = 8 - sorted.size() % 8;
 		for (int j = 0; j < n; j++) table.addCell(profile.getBodyCell("", row));
-		document.add(table);
+		table.finish();
 	}
 }
@@ -1,84 +1,83 @@
 package org.reactome.server.tools.analysis.report.section;
 
 import com.itextpdf.layout.Document;
-import com.itextpdf.layout.element.Table;
 import org.reactome.server.analysis.core.model.AnalysisIdentifier;
 import org.reactome.server.analysis.core.model.AnalysisType;
 import org.reactome.server.analysis.core.model.identifier.Identifier;
 import org.reactome.server.analysis.core.model.identifier.MainIdentifier;
-import org.reactome.server.analysis.core.result.PathwayNodeSummary;
 import org.reactome.server.analysis.core.result.model.FoundEntity;
 import org.reactome.server.analysis.core.result.model.FoundInteractor;
-import org.reactome.server.analysis.core.result.model.FoundInteractors;
-import org.reactome.server.analysis.core.result.model.IdentifierSummary;
 import org.reactome.server.analysis.core.util.MapSet;
 import org.reactome.server.tools.analysis.report.AnalysisData;
+import org.reactome.server.tools.analysis.report.IdentifierIndex;
 import org.reactome.server.tools.analysis.report.style.PdfProfile;
 import org.reactome.server.tools.analysis.report.util.PdfUtils;
 
 import java.util.Collection;
-import java.util.Comparator;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.Locale;
 
-public class IdentifiersFound implements Section {
+public class IdentifiersFound implements Section<IdentifiersFound.Model> {
 
+	/**
+	 * Counts the found identifiers and builds the {@link IdentifierIndex}.
+	 */
 	@Override
-	public void render(Document document, PdfProfile profile, AnalysisData analysisData) {
-		document.add(profile.getH1(("Identifiers found")).setDestination("identifiers-found"));
-		document.add(profile.getParagraph(PdfUtils.getProperty("identifiers.found.section")));
+	public Model prepare(PdfProfile profile, AnalysisData analysisData) {
 		MapSet<Identifier, MainIdentifier> foundEntitiesMap = analysisData.getResult().getFoundEntitiesMap();
 		final long entities = foundEntitiesMap.keySet().stream()
 				.map(Identifier::getValue)
 				.map(AnalysisIdentifier::getId)
 				.distinct()
 				.count();
-		int mappedEntitiesCount = foundEntitiesMap.values().size();
-		document.add(profile.getH3(String.format("%d of the submitted entities were found, mapping to %d Reactome entities", entities, mappedEntitiesCount)));
+		return new Model(entities, foundEntitiesMap.values().size(), analysisData.getIdentifierIndex());
+	}
+
+	@Override
+	public void render(Document document, PdfProfile profile, AnalysisData analysisData, Model model) {
+		document.add(profile.getH1(("Identifiers found")).setDestination("identifiers-found"));
+		document.add(profile.getParagraph(PdfUtils.getProperty("identifiers.found.section")));
+		document.add(profile.getH3(String.format(Locale.ENGLISH, "%d of the submitted entities were found, mapping to %d Reactome entities", model.entities, model.mappedEntities)));
 		for (String resource : analysisData.getResources()) {
 			document.add(profile.getParagraph(""));
-			addAllTable(document, profile, analysisData, resource);
+			addAllTable(document, profile, analysisData, model.index, resource);
 		}
 
 		if (analysisData.isInteractors()) {
-			final long interactors = analysisData.getResult().getPathways().stream()
-					.map(PathwayNodeSummary::getStId)
-					.map(analysisData.getResult()::getFoundInteractors)
-					.map(FoundInteractors::getIdentifiers)
-					.flatMap(Collection::stream)
-					.distinct()
-					.count();
+			final long interactors = model.index.getInteractorsCount();
 			if (interactors > 0){
-				document.add(profile.getH3(String.format("Interactors (%d)", interactors)));
+				document.add(profile.getH3(String.format(Locale.ENGLISH, "Interactors (%d)", interactors)));
 				for (String resource : analysisData.getResources()) {
-					addInteractorsTable(document, profile, analysisData, resource);
+					addInteractorsTable(document, profile, analysisData, model.index, resource);
 				}
 			}
 		}
 	}
 
-	private void addAllTable(Document document, PdfProfile profile, AnalysisData analysisData, String resource) {
-		final Set<FoundEntity> entities = new TreeSet<>(Comparator.comparing(IdentifierSummary::getId));
-		for (PathwayNodeSummary pathway : analysisData.getResult().getPathways()) {
-			entities.addAll(analysisData.getResult().getFoundEntities(pathway.getStId(), resource).filter(resource).getIdentifiers());
-		}
+	private void addAllTable(Document document, PdfProfile profile, AnalysisData analysisData, IdentifierIndex index, String resource) {
+		final Collection<FoundEntity> entities = index.getEntities(resource);
 		if (entities.isEmpty()) return;
-		final Table expressionTable = analysisData.getType() == AnalysisType.EXPRESSION
-				? Tables.getExpressionTable(entities, resource, profile, analysisData.getResult().getExpressionSummary().getColumnNames())
-				: Tables.createEntitiesTable(entities, resource, profile);
-		document.add(expressionTable);
+		if (analysisData.getType() == AnalysisType.EXPRESSION)
+			Tables.addExpressionTable(document, entities, resource, profile, analysisData.getResult().getExpressionSummary().getColumnNames());
+		else Tables.addEntitiesTable(document, entities, resource, profile);
 	}
 
-	private void addInteractorsTable(Document document, PdfProfile profile, AnalysisData analysisData, String resource) {
-		final Set<FoundInteractor> interactors = new TreeSet<>(Comparator.comparing(IdentifierSummary::getId));
-		for (PathwayNodeSummary pathway : analysisData.getResult().getPathways()) {
-			interactors.addAll(analysisData.getResult().getFoundInteractors(pathway.getStId()).filter(resource).getIdentifiers());
-		}
+	private void addInteractorsTable(Document document, PdfProfile profile, AnalysisData analysisData, IdentifierIndex index, String resource) {
+		final Collection<FoundInteractor> interactors = index.getInteractors(resource);
 		if (interactors.isEmpty()) return;
-		final Table table = analysisData.getType() == AnalysisType.EXPRESSION
-				? Tables.getInteractorsExpressionTable(interactors, resource, profile, analysisData.getResult().getExpressionSummary().getColumnNames())
-				: Tables.getInteractorsTable(interactors, resource, profile);
-		document.add(table);
+		if (analysisData.getType() == AnalysisType.EXPRESSION)
+			Tables.addInteractorsExpressionTable(document, interactors, resource, profile, analysisData.getResult().getExpressionSummary().getColumnNames());
+		else Tables.addInteractorsTable(document, interactors, resource, profile);
 	}
 
+	static class Model {
+		private final long entities;
+		private final int mappedEntities;
+		private final IdentifierIndex index;
+
+		Model(long entities, int mappedEntities, IdentifierIndex index) {
+			this.entities = entities;
+			this.mappedEntities = mappedEntities;
+			this.index = index;
+		}
+	}
 }
@@ -19,7 +19,7 @@ import java.util.stream.Collectors;
  *
  * @author Chuan-Deng dengchuanbio@gmail.com
  */
-public class Introduction implements Section {
+public class Introduction implements Section<Void> {
 
 	private static final String INTRODUCTION = PdfUtils.getProperty("introduction");
 	private static final List<Reference> PUBLICATIONS = PdfUtils.getText(Introduction.class.getResourceAsStream("references.txt"))
@@ -29,7 +29,7 @@ public class Introduction implements Section {
 			.collect(Collectors.toList());
 
 	@Override
-	public void render(Document document, PdfProfile profile, AnalysisData analysisData) {
+	public void render(Document document, PdfProfile profile, AnalysisData analysisData, Void model) {
 		document.add(new AreaBreak());
 		document.add(profile.getH1("Introduction").setDestination("introduction"));
 		final Collection<Paragraph> intro = HtmlParser.parseText(profile, INTRODUCTION);
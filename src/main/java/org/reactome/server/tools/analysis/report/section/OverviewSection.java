@@ -4,33 +4,64 @@ import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.properties.TextAlignment;
 import org.reactome.server.tools.analysis.report.AnalysisData;
+import org.reactome.server.tools.analysis.report.metrics.ReportListener;
+import org.reactome.server.tools.analysis.report.metrics.ReportMonitor;
 import org.reactome.server.tools.analysis.report.style.PdfProfile;
+import org.reactome.server.tools.analysis.report.util.ExportedImage;
 import org.reactome.server.tools.analysis.report.util.FireworksHelper;
 import org.reactome.server.tools.analysis.report.util.PdfUtils;
 import org.reactome.server.tools.fireworks.exporter.common.analysis.exception.AnalysisServerError;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+
 /**
  * Fireworks and AnalysisStoredResult.getSummary()
  */
-public class OverviewSection implements Section {
+public class OverviewSection implements Section<ExportedImage> {
 
-	@Override
-	public void render(Document document, PdfProfile profile, AnalysisData analysisData) {
-		document.add(profile.getH1("Genome-wide overview").setDestination("overview"));
-		addFireworks(document, analysisData);
-		final String text = PdfUtils.getProperty("fireworks.caption");
-		document.add(profile.getParagraph(text).setTextAlignment(TextAlignment.CENTER));
-		document.add(new AreaBreak());
+	private final FireworksHelper fireworksHelper;
+	private final ConcurrentMap<String, CompletableFuture<byte[]>> sharedFireworks;
+
+	public OverviewSection(FireworksHelper fireworksHelper) {
+		this(fireworksHelper, null);
+	}
+
+	/**
+	 * @param sharedFireworks if not null, fireworks shared with other reports.
+	 *                        See {@link FireworksHelper#exportFireworks(AnalysisData,
+	 *                        ConcurrentMap)}
+	 */
+	public OverviewSection(FireworksHelper fireworksHelper, ConcurrentMap<String, CompletableFuture<byte[]>> sharedFireworks) {
+		this.fireworksHelper = fireworksHelper;
+		this.sharedFireworks = sharedFireworks;
 	}
 
-	private void addFireworks(Document document, AnalysisData analysisData) {
+	/**
+	 * Renders the fireworks.
+	 */
+	@Override
+	public ExportedImage prepare(PdfProfile profile, AnalysisData analysisData) {
+		final ReportMonitor.Timer timer = analysisData.getMonitor().start(ReportListener.Stage.FIREWORKS, "fireworks");
 		try {
-			FireworksHelper.insertFireworks(document, analysisData);
+			return sharedFireworks == null
+					? fireworksHelper.exportFireworks(analysisData)
+					: fireworksHelper.exportFireworks(analysisData, sharedFireworks);
 		} catch (AnalysisServerError exception) {
 			LoggerFactory.getLogger(OverviewSection.class).error("Couldn't add fireworks", exception);
+			return null;
+		} finally {
+			timer.stop();
 		}
 	}
 
-
+	@Override
+	public void render(Document document, PdfProfile profile, AnalysisData analysisData, ExportedImage fireworks) {
+		document.add(profile.getH1("Genome-wide overview").setDestination("overview"));
+		fireworksHelper.insertFireworks(document, fireworks);
+		final String text = PdfUtils.getProperty("fireworks.caption");
+		document.add(profile.getParagraph(text).setTextAlignment(TextAlignment.CENTER));
+		document.add(new AreaBreak());
+	}
 }
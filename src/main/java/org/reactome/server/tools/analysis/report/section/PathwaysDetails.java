@@ -9,17 +9,34 @@ import com.itextpdf.layout.properties.ListNumberingType;
 import com.itextpdf.layout.properties.TextAlignment;
 import org.reactome.server.analysis.core.result.model.FoundEntities;
 import org.reactome.server.analysis.core.result.model.FoundInteractors;
-import org.reactome.server.graph.domain.model.*;
 import org.reactome.server.tools.analysis.report.AnalysisData;
+import org.reactome.server.tools.analysis.report.IdentifierIndex;
 import org.reactome.server.tools.analysis.report.PathwayData;
+import org.reactome.server.tools.analysis.report.exception.AnalysisExporterException;
+import org.reactome.server.tools.analysis.report.metadata.DiagramMetadata;
+import org.reactome.server.tools.analysis.report.metadata.EditMetadata;
+import org.reactome.server.tools.analysis.report.metadata.PathwayMetadata;
+import org.reactome.server.tools.analysis.report.metadata.PersonMetadata;
+import org.reactome.server.tools.analysis.report.metadata.PublicationMetadata;
+import org.reactome.server.tools.analysis.report.metrics.ReportListener;
+import org.reactome.server.tools.analysis.report.metrics.ReportMonitor;
 import org.reactome.server.tools.analysis.report.style.Images;
 import org.reactome.server.tools.analysis.report.style.PdfProfile;
 import org.reactome.server.tools.analysis.report.util.ApaStyle;
 import org.reactome.server.tools.analysis.report.util.DiagramHelper;
+import org.reactome.server.tools.analysis.report.util.ExportedImage;
 import org.reactome.server.tools.analysis.report.util.HtmlParser;
 import org.reactome.server.tools.analysis.report.util.PdfUtils;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -29,43 +46,190 @@ import java.util.stream.Collectors;
  *
  * @author Chuan-Deng dengchuanbio@gmail.com
  */
-public class PathwaysDetails implements Section {
+public class PathwaysDetails implements Section<Map<String, PathwayMetadata>> {
 
 	private static final String PATHWAY_DETAIL = "/content/detail/";
+	/**
+	 * Max number of pathway fragments being rendered, or waiting to be merged,
+	 * at the same time. Bounds the memory held by exported diagrams.
+	 */
+	private static final int WINDOW = Math.max(2, 2 * Runtime.getRuntime().availableProcessors());
+	/**
+	 * Number of pathways prepared ahead of the one being merged when no
+	 * executor is given.
+	 */
+	private static final int LOOK_AHEAD = 4;
+	/**
+	 * Number of pathways whose metadata is fetched in one call.
+	 */
+	private static final int BATCH = 20;
+	private static final AtomicInteger PREFETCH_THREADS = new AtomicInteger();
+
+	private final DiagramHelper diagramHelper;
+	private final Executor executor;
+
+	public PathwaysDetails(DiagramHelper diagramHelper) {
+		this(diagramHelper, null);
+	}
+
+	/**
+	 * @param diagramHelper exports the diagram of each pathway
+	 * @param executor      if not null, the detail block of each pathway is
+	 *                      rendered in this executor and merged back into the
+	 *                      document in p-value order. If null, blocks are
+	 *                      prepared, a few pathways ahead, by one background
+	 *                      thread.
+	 */
+	public PathwaysDetails(DiagramHelper diagramHelper, Executor executor) {
+		this.diagramHelper = diagramHelper;
+		this.executor = executor;
+	}
+
+	/**
+	 * Fetches the metadata of the first {@link #BATCH} pathways, so the first
+	 * blocks are ready as soon as the section is laid out.
+	 */
+	@Override
+	public Map<String, PathwayMetadata> prepare(PdfProfile profile, AnalysisData analysisData) {
+		final java.util.List<String> stIds = analysisData.getPathways().stream()
+				.limit(BATCH)
+				.map(pathwayData -> pathwayData.getBase().getStId())
+				.collect(Collectors.toList());
+		return Collections.unmodifiableMap(analysisData.getPathwayMetadata(stIds));
+	}
 
 	@Override
-	public void render(Document document, PdfProfile profile, AnalysisData analysisData) {
+	public void render(Document document, PdfProfile profile, AnalysisData analysisData, Map<String, PathwayMetadata> firstBatch) throws AnalysisExporterException {
 		document.add(new AreaBreak());
 		document.add(profile.getH1("Pathways details").setDestination("pathway-details"));
 		document.add(profile.getParagraph(PdfUtils.getProperty("pathways.detail")));
-		int i = 1;
-		for (PathwayData pathwayData : analysisData.getPathways()) {
-			final Pathway pathway = pathwayData.getPathway();
-			document.add(getTitle(profile, i, pathway, analysisData));
-			DiagramHelper.insertDiagram(pathway.getStId(), analysisData.getResult(), analysisData.getResource(), document);
-			addDatabaseObjectList(document, "Cellular compartments", pathway.getCompartment(), profile);
-			addRelatedDiseases(document, pathway, profile);
-			addDatabaseObjectList(document, "Inferred from", pathway.getInferredFrom(), profile);
+		if (executor != null) {
+			render(document, profile, analysisData, firstBatch, executor, WINDOW);
+			return;
+		}
+		final ExecutorService prefetch = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "pathway-prefetch-" + PREFETCH_THREADS.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			render(document, profile, analysisData, firstBatch, prefetch, LOOK_AHEAD);
+		} finally {
+			prefetch.shutdownNow();
+		}
+	}
 
-			addSummations(document, pathway, profile);
-			addReferences(document, pathway, profile);
+	/**
+	 * Producer-consumer pipeline. Up to window pathways are prepared in
+	 * workers: their metadata is fetched, in batches of {@link #BATCH}
+	 * pathways per call to the metadata provider, their diagram is exported
+	 * and their elements are created. Meanwhile, the calling thread merges them in order, as
+	 * soon as they are ready. Titles, destinations and links are fixed when
+	 * the fragment is created, and page numbers are assigned by the {@link
+	 * FooterEventHandler} while merging, so they are the same as in a
+	 * sequential rendering. Once merged and flushed, nothing references the
+	 * fragment or the metadata of the pathway. When the pipeline stops, queued
+	 * fragments see the cancelled flag and are not created.
+	 */
+	private void render(Document document, PdfProfile profile, AnalysisData analysisData, Map<String, PathwayMetadata> firstBatch, Executor workers, int window) throws AnalysisExporterException {
+		final java.util.List<PathwayData> pathways = new ArrayList<>(analysisData.getPathways());
+		final Deque<CompletableFuture<PathwayFragment>> pending = new ArrayDeque<>();
+		final AtomicBoolean cancelled = new AtomicBoolean();
+		CompletableFuture<Map<String, PathwayMetadata>> batch = null;
+		int next = 0;
+		try {
+			while (next < pathways.size() || !pending.isEmpty()) {
+				while (pending.size() < window && next < pathways.size()) {
+					if (next == 0 && firstBatch != null) batch = CompletableFuture.completedFuture(firstBatch);
+					else if (next % BATCH == 0) batch = fetchBatch(analysisData, pathways.subList(next, Math.min(pathways.size(), next + BATCH)), workers);
+					final int i = next + 1;
+					final PathwayData pathwayData = pathways.get(next++);
+					pending.add(batch.thenApplyAsync(metadata -> createFragment(profile, i, pathwayData, metadata.get(pathwayData.getBase().getStId()), analysisData, cancelled), workers));
+				}
+				merge(document, pending.poll().join(), analysisData.getMonitor());
+			}
+		} catch (CompletionException e) {
+			throw new AnalysisExporterException("Couldn't render pathway details", e.getCause());
+		} finally {
+			// CompletableFuture.cancel does not interrupt running tasks
+			cancelled.set(true);
+		}
+	}
 
-			addEditTable(document, pathway, profile);
+	private CompletableFuture<Map<String, PathwayMetadata>> fetchBatch(AnalysisData analysisData, java.util.List<PathwayData> pathways, Executor workers) {
+		final java.util.List<String> stIds = pathways.stream()
+				.map(pathwayData -> pathwayData.getBase().getStId())
+				.collect(Collectors.toList());
+		return CompletableFuture.supplyAsync(() -> analysisData.getPathwayMetadata(stIds), workers);
+	}
 
-			addFoundElements(document, analysisData, pathway, profile);
+	/**
+	 * Creates every element of the detail block of a pathway. This method does
+	 * not access the document, so it is safe to call it from any thread.
+	 *
+	 * @throws CancellationException if the pipeline has already stopped
+	 */
+	private PathwayFragment createFragment(PdfProfile profile, int i, PathwayData pathwayData, PathwayMetadata pathway, AnalysisData analysisData, AtomicBoolean cancelled) {
+		if (cancelled.get()) throw new CancellationException();
+		final ReportMonitor.Timer timer = analysisData.getMonitor().start(ReportListener.Stage.PATHWAY, pathway.getStId());
+		try {
+			return fillFragment(profile, i, pathwayData, pathway, analysisData);
+		} finally {
+			timer.stop();
+		}
+	}
 
-			if (analysisData.isInteractors()) {
-				document.add(profile.getParagraph(""));
-				addFoundInteractors(document, analysisData, pathway, profile);
+	private PathwayFragment fillFragment(PdfProfile profile, int i, PathwayData pathwayData, PathwayMetadata pathway, AnalysisData analysisData) {
+		final PathwayFragment fragment = new PathwayFragment(pathway.getStId(), pathwayData.getDiagram());
+		fragment.title = getTitle(profile, i, pathway, analysisData);
+		if (pathwayData.getDiagram() != null) {
+			final ReportMonitor.Timer export = analysisData.getMonitor().start(ReportListener.Stage.DIAGRAM_EXPORT, pathwayData.getDiagram().getDiagramStId());
+			try {
+				fragment.image = diagramHelper.exportDiagram(pathwayData.getDiagram(), analysisData);
+			} finally {
+				export.stop();
 			}
+		}
+		final java.util.List<IBlockElement> elements = fragment.elements;
+		addNameList(elements, "Cellular compartments", pathway.getCompartments(), profile);
+		addRelatedDiseases(elements, pathway, profile);
+		addNameList(elements, "Inferred from", pathway.getInferredFrom(), profile);
 
-			document.add(new AreaBreak());
+		addSummations(elements, pathway, profile, analysisData.getDBVersion());
+		addReferences(elements, pathway, profile);
+
+		addEditTable(elements, pathway, profile);
+
+		addFoundElements(elements, analysisData, pathway, profile);
+
+		if (analysisData.isInteractors()) {
+			elements.add(profile.getParagraph(""));
+			addFoundInteractors(elements, analysisData, pathway, profile);
+		}
+		return fragment;
+	}
+
+	private void merge(Document document, PathwayFragment fragment, ReportMonitor monitor) {
+		document.add(fragment.title);
+		if (fragment.image != null) {
+			final ReportMonitor.Timer timer = monitor.start(ReportListener.Stage.DIAGRAM_INSERT, fragment.diagram.getDiagramStId());
+			try {
+				DiagramHelper.insertDiagram(fragment.image, document);
+			} finally {
+				timer.stop();
+			}
+		}
+		fragment.elements.forEach(document::add);
+		document.add(new AreaBreak());
+		final ReportMonitor.Timer flush = monitor.start(ReportListener.Stage.FLUSH, fragment.stId);
+		try {
 			document.flush();
-			i += 1;
+		} finally {
+			flush.stop();
 		}
 	}
 
-	private List getTitle(PdfProfile profile, int i, Pathway pathway, AnalysisData analysisData) {
+	private List getTitle(PdfProfile profile, int i, PathwayMetadata pathway, AnalysisData analysisData) {
 		final List list = new List(ListNumberingType.DECIMAL)
 				.setItemStartIndex(i)
 				.setFontSize(profile.getFontSize() + 2)
@@ -84,113 +248,100 @@ public class PathwaysDetails implements Section {
 		return list;
 	}
 
-	private void addFoundElements(Document document, AnalysisData analysisData, Pathway pathway, PdfProfile profile) {
-		final FoundEntities foundEntities = analysisData.getResult().getFoundEntities(pathway.getStId(), "TOTAL");
+	private void addFoundElements(java.util.List<IBlockElement> elements, AnalysisData analysisData, PathwayMetadata pathway, PdfProfile profile) {
+		final IdentifierIndex index = analysisData.getIdentifierIndex();
+		final FoundEntities foundEntities = index.getPathwayEntities(pathway.getStId());
 		if (foundEntities.getIdentifiers().isEmpty()) return;
-		document.add(profile.getH3(String.format("%d submitted entities found in this pathway, mapping to %d Reactome entities", foundEntities.getIdentifiers().size(), foundEntities.getTotalEntitiesCount())));
+		elements.add(profile.getH3(String.format(Locale.ENGLISH, "%d submitted entities found in this pathway, mapping to %d Reactome entities", foundEntities.getIdentifiers().size(), foundEntities.getTotalEntitiesCount())));
 		for (String resource : analysisData.getResources()) {
-			document.add(profile.getParagraph(""));
-			addIdentifiers(document, foundEntities.filter(resource), resource, profile);
+			elements.add(profile.getParagraph(""));
+			addIdentifiers(elements, index.getPathwayEntities(pathway.getStId(), resource), resource, profile);
 		}
 	}
 
-	private void addIdentifiers(Document document, FoundEntities elements, String resource, PdfProfile profile) {
-		if (elements.getIdentifiers().isEmpty()) return;
-		final Table identifiersTable = elements.getExpNames() == null || elements.getExpNames().isEmpty()
-				? Tables.createEntitiesTable(elements.getIdentifiers(), resource, profile)
-				: Tables.getExpressionTable(elements.getIdentifiers(), resource, profile, elements.getExpNames());
-		document.add(identifiersTable);
+	private void addIdentifiers(java.util.List<IBlockElement> elements, FoundEntities foundEntities, String resource, PdfProfile profile) {
+		if (foundEntities.getIdentifiers().isEmpty()) return;
+		final Table identifiersTable = foundEntities.getExpNames() == null || foundEntities.getExpNames().isEmpty()
+				? Tables.createEntitiesTable(foundEntities.getIdentifiers(), resource, profile)
+				: Tables.getExpressionTable(foundEntities.getIdentifiers(), resource, profile, foundEntities.getExpNames());
+		elements.add(identifiersTable);
 	}
 
-	private void addFoundInteractors(Document document, AnalysisData analysisData, Pathway pathway, PdfProfile profile) {
-		final FoundInteractors interactors = analysisData.getResult().getFoundInteractors(pathway.getStId());
+	private void addFoundInteractors(java.util.List<IBlockElement> elements, AnalysisData analysisData, PathwayMetadata pathway, PdfProfile profile) {
+		final IdentifierIndex index = analysisData.getIdentifierIndex();
+		final FoundInteractors interactors = index.getPathwayInteractors(pathway.getStId());
 		if (interactors.getIdentifiers().isEmpty()) return;
-		document.add(profile.getH3(String.format("Interactors found in this pathway (%d)", interactors.getIdentifiers().size())));
+		elements.add(profile.getH3(String.format(Locale.ENGLISH, "Interactors found in this pathway (%d)", interactors.getIdentifiers().size())));
 		for (String resource : analysisData.getResources()) {
-			addInteractorsTable(document, interactors.filter(resource), resource, profile);
+			addInteractorsTable(elements, index.getPathwayInteractors(pathway.getStId(), resource), resource, profile);
 		}
 	}
 
-	private void addInteractorsTable(Document document, FoundInteractors interactors, String resource, PdfProfile profile) {
+	private void addInteractorsTable(java.util.List<IBlockElement> elements, FoundInteractors interactors, String resource, PdfProfile profile) {
 		if (interactors.getIdentifiers().isEmpty()) return;
 		final Table table = (interactors.getExpNames() == null || interactors.getExpNames().isEmpty())
 				? Tables.getInteractorsTable(interactors.getIdentifiers(), resource, profile)
 				: Tables.getInteractorsExpressionTable(interactors.getIdentifiers(), resource, profile, interactors.getExpNames());
-		document.add(table);
+		elements.add(table);
 	}
 
-	private void addSummations(Document document, Pathway pathway, PdfProfile profile) {
-		pathway.getSummation().stream()
-				.map(summation -> HtmlParser.parseText(profile, summation.getText()))
+	private void addSummations(java.util.List<IBlockElement> elements, PathwayMetadata pathway, PdfProfile profile, int release) {
+		pathway.getSummations().stream()
+				.filter(summation -> summation.getText() != null)
+				.map(summation -> HtmlParser.parseSummation(profile, release, summation.getDbId(), summation.getText()))
 				.flatMap(Collection::stream)
-				.forEach(document::add);
+				.forEach(elements::add);
 	}
 
-	private void addRelatedDiseases(Document document, Pathway pathwayDetail, PdfProfile profile) {
-		if (pathwayDetail.getDisease() != null) {
-			final java.util.List<Disease> diseases = pathwayDetail.getDisease().stream()
-					.filter(disease -> !disease.getDisplayName().equals("disease"))
-					.collect(Collectors.toList());
-			addDatabaseObjectList(document, "Diseases", diseases, profile);
-		}
+	private void addRelatedDiseases(java.util.List<IBlockElement> elements, PathwayMetadata pathwayDetail, PdfProfile profile) {
+		final java.util.List<String> diseases = pathwayDetail.getDiseases().stream()
+				.filter(disease -> !disease.equals("disease"))
+				.collect(Collectors.toList());
+		addNameList(elements, "Diseases", diseases, profile);
 	}
 
-	private void addDatabaseObjectList(Document document, String title, Collection<? extends DatabaseObject> objects, PdfProfile profile) {
-		if (objects != null && !objects.isEmpty()) {
-			final java.util.List<String> list = objects.stream()
-					.map(DatabaseObject::getDisplayName)
-					.collect(Collectors.toList());
-			final String body = String.join(", ", list) + ".";
+	private void addNameList(java.util.List<IBlockElement> elements, String title, Collection<String> names, PdfProfile profile) {
+		if (!names.isEmpty()) {
+			final String body = String.join(", ", names) + ".";
 			final Paragraph paragraph = profile.getParagraph("")
 					.add(new Text(title + ": ").setFont(profile.getBoldFont()))
 					.add(body);
-			document.add(paragraph);
+			elements.add(paragraph);
 		}
 	}
 
-	private void addReferences(Document document, Pathway pathwayDetail, PdfProfile profile) {
-		if (pathwayDetail.getLiteratureReference() != null) {
-			document.add(profile.getH3("References"));
-			pathwayDetail.getLiteratureReference().stream()
+	private void addReferences(java.util.List<IBlockElement> elements, PathwayMetadata pathwayDetail, PdfProfile profile) {
+		if (!pathwayDetail.getReferences().isEmpty()) {
+			elements.add(profile.getH3("References"));
+			pathwayDetail.getReferences().stream()
 					.limit(5)
 					.map(publication -> createPublication(publication, profile))
-					.forEach(document::add);
+					.forEach(elements::add);
 		}
 	}
 
-	private Paragraph createPublication(Publication publication, PdfProfile profile) {
+	private Paragraph createPublication(PublicationMetadata publication, PdfProfile profile) {
 		final java.util.List<Text> texts = ApaStyle.toApa(publication);
 		final Paragraph paragraph = profile.getParagraph("")
 				.setFirstLineIndent(-15)
 				.setPaddingLeft(15)
 				.setMultipliedLeading(1);
 		texts.forEach(paragraph::add);
-		if (publication instanceof LiteratureReference) {
-			final LiteratureReference reference = (LiteratureReference) publication;
-			if (reference.getUrl() != null)
-				paragraph.add(" ").add(Images.getLink(reference.getUrl(), profile.getFontSize() - 1f));
-		} else if (publication instanceof URL) {
-			final URL url = (URL) publication;
-			paragraph.add(Images.getLink(url.getUniformResourceLocator(), profile.getFontSize() - 1f));
+		if (PublicationMetadata.LITERATURE_REFERENCE.equals(publication.getSchemaClass())) {
+			if (publication.getUrl() != null)
+				paragraph.add(" ").add(Images.getLink(publication.getUrl(), profile.getFontSize() - 1f));
+		} else if (PublicationMetadata.URL.equals(publication.getSchemaClass())) {
+			paragraph.add(Images.getLink(publication.getUrl(), profile.getFontSize() - 1f));
 		}
 		return paragraph;
 	}
 
-	private void addEditTable(Document document, Pathway pathway, PdfProfile profile) {
-		document.add(profile.getH3("Edit history"));
-		final java.util.List<Edition> editions = new LinkedList<>();
-		if (pathway.getCreated() != null)
-			editions.add(new Edition("Created", pathway.getCreated()));
-		if (pathway.getModified() != null)
-			editions.add(new Edition("Modified", pathway.getModified()));
-		if (pathway.getAuthored() != null)
-			pathway.getAuthored().forEach(instanceEdit -> editions.add(new Edition("Authored", instanceEdit)));
-		if (pathway.getEdited() != null)
-			pathway.getEdited().forEach(instanceEdit -> editions.add(new Edition("Edited", instanceEdit)));
-		if (pathway.getReviewed() != null)
-			pathway.getReviewed().forEach(instanceEdit -> editions.add(new Edition("Reviewed", instanceEdit)));
-		if (pathway.getRevised() != null)
-			pathway.getRevised().forEach(instanceEdit -> editions.add(new Edition("Revised", instanceEdit)));
+	private void addEditTable(java.util.List<IBlockElement> elements, PathwayMetadata pathway, PdfProfile profile) {
+		elements.add(profile.getH3("Edit history"));
+		final java.util.List<Edition> editions = pathway.getEdits().stream()
+				.filter(edit -> edit.getDateTime() != null)
+				.map(Edition::new)
+				.collect(Collectors.toList());
 
 		// Group by date and type
 		final Map<String, Map<String, java.util.List<Edition>>> edits = editions.stream()
@@ -209,7 +360,7 @@ public class PathwaysDetails implements Section {
 			for (Map.Entry<String, java.util.List<Edition>> typeEntry : dateEntry.getValue().entrySet()) {
 				table.addCell(profile.getBodyCell(dateEntry.getKey(), row));
 				table.addCell(profile.getBodyCell(typeEntry.getKey(), row));
-				final Set<Person> authors = typeEntry.getValue().stream()
+				final Set<PersonMetadata> authors = typeEntry.getValue().stream()
 						.map(Edition::getAuthors)
 						.filter(Objects::nonNull)
 						.flatMap(Collection::stream)
@@ -218,15 +369,15 @@ public class PathwaysDetails implements Section {
 				row += 1;
 			}
 		}
-		document.add(table);
+		elements.add(table);
 
 	}
 
-	private String asString(Collection<Person> persons) {
+	private String asString(Collection<PersonMetadata> persons) {
 		return asString(persons, 5);
 	}
 
-	private String asString(Collection<Person> persons, int maxAuthors) {
+	private String asString(Collection<PersonMetadata> persons, int maxAuthors) {
 		if (persons == null) return "";
 		String text = String.join(", ", persons.stream()
 				.limit(maxAuthors)
@@ -236,7 +387,7 @@ public class PathwaysDetails implements Section {
 		return text;
 	}
 
-	private String compileName(Person person) {
+	private String compileName(PersonMetadata person) {
 		if (person.getSurname() != null && person.getInitial() != null)
 			return person.getSurname() + " " + person.getInitial();
 		if (person.getSurname() != null && person.getFirstname() != null)
@@ -253,20 +404,21 @@ public class PathwaysDetails implements Section {
 
 	private class Edition {
 		private final String type;
-		private final java.util.List<Person> authors;
+		private final java.util.List<PersonMetadata> authors;
 		private final String date;
 
-		Edition(String type, InstanceEdit instanceEdit) {
-			this.type = type;
-			this.authors = instanceEdit.getAuthor();
-			this.date = instanceEdit.getDateTime().substring(0, 10);
+		Edition(EditMetadata edit) {
+			// created -> Created
+			this.type = edit.getType().substring(0, 1).toUpperCase() + edit.getType().substring(1);
+			this.authors = edit.getAuthors();
+			this.date = edit.getDateTime().substring(0, 10);
 		}
 
 		public String getType() {
 			return type;
 		}
 
-		java.util.List<Person> getAuthors() {
+		java.util.List<PersonMetadata> getAuthors() {
 			return authors;
 		}
 
@@ -274,4 +426,17 @@ public class PathwaysDetails implements Section {
 			return date;
 		}
 	}
+
+	private static class PathwayFragment {
+		private final String stId;
+		private final DiagramMetadata diagram;
+		private List title;
+		private ExportedImage image;
+		private final java.util.List<IBlockElement> elements = new LinkedList<>();
+
+		PathwayFragment(String stId, DiagramMetadata diagram) {
+			this.stId = stId;
+			this.diagram = diagram;
+		}
+	}
 }
@@ -22,14 +22,14 @@ import java.util.Locale;
  *
  * @author Chuan-Deng dengchuanbio@gmail.com
  */
-public class PropertiesSection implements Section {
+public class PropertiesSection implements Section<Void> {
 
 	private final static String PROJECTED = "/documentation/inferred-events";
 	private final static String ANALYSIS_PATH = "/user/guide/analysis";
 	private final static String GSA_ANALYSIS_PATH = "/user/guide/analysis/gsa";
 
 	@Override
-	public void render(Document document, PdfProfile profile, AnalysisData analysisData) {
+	public void render(Document document, PdfProfile profile, AnalysisData analysisData, Void model) {
 		document.add(new AreaBreak());
 		document.add(profile.getH1("Properties").setDestination("properties"));
 		final List<Paragraph> paragraphs = new LinkedList<>();
@@ -58,7 +58,7 @@ public class PropertiesSection implements Section {
 					.add(analysisLink));
 		}
 
-		paragraphs.add(profile.getParagraph(String.format(PdfUtils.getProperty("identifiers.found"),
+		paragraphs.add(profile.getParagraph(String.format(Locale.ENGLISH, PdfUtils.getProperty("identifiers.found"),
 				found, found + notFound, analysisData.getResult().getPathways().size())));
 
 		if (analysisData.isProjection())
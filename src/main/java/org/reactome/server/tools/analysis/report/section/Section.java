@@ -6,14 +6,27 @@ import org.reactome.server.tools.analysis.report.exception.AnalysisExporterExcep
 import org.reactome.server.tools.analysis.report.style.PdfProfile;
 
 /**
- * Whole PDF report will be split into different sections.
+ * Whole PDF report will be split into different sections. Each section is
+ * created in two phases: {@link #prepare(PdfProfile, AnalysisData)}, run for
+ * every section concurrently when the report starts, computes the data of the
+ * section, and {@link #render(Document, PdfProfile, AnalysisData, Object)}, run
+ * for one section after the other, lays it out in the document.
  *
+ * @param <M> model computed by prepare, Void if the section needs none
  * @author Chuan-Deng dengchuanbio@gmail.com
  */
-public interface Section {
+public interface Section<M> {
+	/**
+	 * Computes the immutable model of the section. It runs at the same time
+	 * as other sections, so it must not access the document.
+	 */
+	default M prepare(PdfProfile profile, AnalysisData analysisData) throws AnalysisExporterException {
+		return null;
+	}
+
 	/**
 	 * This method is to create the pdf document according to the analysis
-	 * result data set.
+	 * result data set and the model returned by prepare.
 	 */
-	void render(Document document, PdfProfile profile, AnalysisData analysisData) throws AnalysisExporterException;
+	void render(Document document, PdfProfile profile, AnalysisData analysisData, M model) throws AnalysisExporterException;
 }
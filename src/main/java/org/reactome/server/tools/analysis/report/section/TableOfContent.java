@@ -12,10 +12,10 @@ import org.reactome.server.tools.analysis.report.style.PdfProfile;
 
 import java.util.Arrays;
 
-public class TableOfContent implements Section {
+public class TableOfContent implements Section<Void> {
 
 	@Override
-	public void render(Document document, PdfProfile profile, AnalysisData analysisData) {
+	public void render(Document document, PdfProfile profile, AnalysisData analysisData, Void model) {
 		document.add(new AreaBreak());
 		document.add(profile.getH1("Table of Contents", false));
 
@@ -0,0 +1,93 @@
+package org.reactome.server.tools.analysis.report.section;
+
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.UnitValue;
+
+/**
+ * Fills a {@link Table} either in memory or streaming it into a {@link
+ * Document}. In streaming mode, the table is created in iText's large table
+ * mode: it is added to the document before its first body cell, and rows are
+ * flushed to the page every {@link #FLUSH_ROWS} rows, so the number of cells
+ * kept in memory does not depend on the size of the table. Header cells are
+ * repeated on every page in both modes.
+ */
+class TableWriter {
+
+	static final int FLUSH_ROWS = 100;
+
+	private final Table table;
+	private final Document document;
+	private final int flushCells;
+	private boolean added;
+	private int cells;
+
+	private TableWriter(Table table, int columns, Document document) {
+		this.table = table;
+		this.document = document;
+		this.flushCells = columns * FLUSH_ROWS;
+	}
+
+	/**
+	 * Creates a writer that keeps the whole table in memory. Use it for small
+	 * tables, or tables that are not added directly to the document.
+	 */
+	static TableWriter inMemory(float[] widths) {
+		return new TableWriter(new Table(widths), widths.length, null);
+	}
+
+	static TableWriter inMemory(UnitValue[] widths) {
+		return new TableWriter(new Table(widths), widths.length, null);
+	}
+
+	/**
+	 * Creates a writer that streams the table into document. {@link #finish()}
+	 * must be called when all the cells have been added.
+	 */
+	static TableWriter streaming(Document document, float[] widths) {
+		return new TableWriter(new Table(widths, true), widths.length, document);
+	}
+
+	static TableWriter streaming(Document document, UnitValue[] widths) {
+		return new TableWriter(new Table(widths, true), widths.length, document);
+	}
+
+	/**
+	 * @return the table, to set its properties. Header cells and properties
+	 * must be set before the first body cell is added
+	 */
+	Table getTable() {
+		return table;
+	}
+
+	void addHeaderCell(Cell cell) {
+		table.addHeaderCell(cell);
+	}
+
+	void addCell(Cell cell) {
+		if (document != null && !added) {
+			document.add(table);
+			added = true;
+		}
+		table.addCell(cell);
+		if (document != null && ++cells % flushCells == 0) table.flush();
+	}
+
+	/**
+	 * Completes the table. In streaming mode, the remaining rows are written
+	 * into the document.
+	 *
+	 * @return the table
+	 */
+	Table finish() {
+		if (document != null) {
+			if (!added) {
+				document.add(table);
+				added = true;
+			}
+			table.complete();
+		}
+		return table;
+	}
+}
@@ -1,5 +1,6 @@
 package org.reactome.server.tools.analysis.report.section;
 
+import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.UnitValue;
 import org.reactome.server.analysis.core.result.model.FoundEntity;
@@ -20,6 +21,7 @@ class Tables {
 	public static final String INPUT = "Input";
 	private static final String DELIMITER = ", ";
 	private static final String INTERACTS_WITH = "Interacts with";
+	private static final float[] INTERACTORS_WIDTHS = {1, 1, 1, 0.1f, 1, 1, 1};
 
 
 	private Tables() {
@@ -36,8 +38,22 @@ class Tables {
 	 */
 	static Table getExpressionTable(Collection<FoundEntity> entities, String resource, PdfProfile profile, List<String> columnNames) {
 		final int rows = Math.min(6, columnNames.size());
-		final Table table = new Table(UnitValue.createPercentArray(2 + rows));
-		table.useAllAvailableWidth();
+		return fillExpressionTable(TableWriter.inMemory(UnitValue.createPercentArray(2 + rows)), entities, resource, profile, columnNames);
+	}
+
+	/**
+	 * Streams a table of identifiers of a expression analysis into document.
+	 *
+	 * @see #getExpressionTable(Collection, String, PdfProfile, List)
+	 */
+	static void addExpressionTable(Document document, Collection<FoundEntity> entities, String resource, PdfProfile profile, List<String> columnNames) {
+		final int rows = Math.min(6, columnNames.size());
+		fillExpressionTable(TableWriter.streaming(document, UnitValue.createPercentArray(2 + rows)), entities, resource, profile, columnNames);
+	}
+
+	private static Table fillExpressionTable(TableWriter table, Collection<FoundEntity> entities, String resource, PdfProfile profile, List<String> columnNames) {
+		final int rows = Math.min(6, columnNames.size());
+		table.getTable().useAllAvailableWidth();
 		table.addHeaderCell(profile.getHeaderCell(INPUT));
 		table.addHeaderCell(profile.getHeaderCell(resource + " Id"));
 		for (int i = 0; i < rows; i++)
@@ -51,7 +67,7 @@ class Tables {
 			}
 			row++;
 		}
-		return table;
+		return table.finish();
 	}
 
 	private static String ellipsis(String text, int max) {
@@ -66,7 +82,7 @@ class Tables {
 				.collect(Collectors.joining(DELIMITER));
 	}
 
-	private static void fillLastRow(Table table, int identifiers, int row, PdfProfile profile) {
+	private static void fillLastRow(TableWriter table, int identifiers, int row, PdfProfile profile) {
 		int n = identifiers % 3;
 		int cols = 0;
 		if (n == 0) cols = 0;
@@ -86,7 +102,17 @@ class Tables {
 	 */
 	static Table createEntitiesTable(Collection<FoundEntity> entities, String resource, PdfProfile profile) {
 		int columns = getColumns(entities.size(), 3);
-		return createEntitiesTable(entities, resource, profile, columns);
+		return fillEntitiesTable(TableWriter.inMemory(getEntitiesWidths(columns)), entities, resource, profile, columns);
+	}
+
+	/**
+	 * Streams the entities table into document.
+	 *
+	 * @see #createEntitiesTable(Collection, String, PdfProfile)
+	 */
+	static void addEntitiesTable(Document document, Collection<FoundEntity> entities, String resource, PdfProfile profile) {
+		int columns = getColumns(entities.size(), 3);
+		fillEntitiesTable(TableWriter.streaming(document, getEntitiesWidths(columns)), entities, resource, profile, columns);
 	}
 
 	private static int getColumns(int elements, int maxColumns) {
@@ -102,7 +128,7 @@ class Tables {
 		return columns;
 	}
 
-	private static Table createEntitiesTable(Collection<FoundEntity> entities, String resource, PdfProfile profile, int columns) {
+	private static float[] getEntitiesWidths(int columns) {
 		final float[] widths = new float[2 * columns + (columns - 1)];
 		for (int i = 0; i < columns; i++) {
 			widths[i] = 2f;
@@ -111,14 +137,17 @@ class Tables {
 				widths[i + 2] = 0.1f;
 			}
 		}
+		return widths;
+	}
 
-		final Table table = new Table(widths);
-		table.useAllAvailableWidth();
+	private static Table fillEntitiesTable(TableWriter table, Collection<FoundEntity> entities, String resource, PdfProfile profile, int columns) {
+		final int width = 2 * columns + (columns - 1);
+		table.getTable().useAllAvailableWidth();
 		final String mapping = String.format("%s Id", resource);
 		for (int i = 0; i < columns; i++) {
 			table.addHeaderCell(profile.getHeaderCell(INPUT));
 			table.addHeaderCell(profile.getHeaderCell(mapping));
-			if (i + 2 < widths.length) {
+			if (i + 2 < width) {
 				table.addHeaderCell(profile.getBodyCell("", 0));
 			}
 		}
@@ -138,16 +167,28 @@ class Tables {
 			i += 1;
 		}
 		fillLastRow(table, identifiers.size(), 0, profile);
-		return table;
+		return table.finish();
 	}
 
 	static Table getInteractorsTable(Collection<FoundInteractor> interactors, String resource, PdfProfile profile) {
+		return fillInteractorsTable(TableWriter.inMemory(INTERACTORS_WIDTHS), interactors, resource, profile);
+	}
+
+	/**
+	 * Streams the interactors table into document.
+	 *
+	 * @see #getInteractorsTable(Collection, String, PdfProfile)
+	 */
+	static void addInteractorsTable(Document document, Collection<FoundInteractor> interactors, String resource, PdfProfile profile) {
+		fillInteractorsTable(TableWriter.streaming(document, INTERACTORS_WIDTHS), interactors, resource, profile);
+	}
+
+	private static Table fillInteractorsTable(TableWriter table, Collection<FoundInteractor> interactors, String resource, PdfProfile profile) {
 		final Collection<FoundInteractor> sorted = interactors.stream()
 				.distinct()
 				.sorted(Comparator.comparing(IdentifierSummary::getId))
 				.collect(Collectors.toList());
-		final Table table = new Table(new float[]{1, 1, 1, 0.1f, 1, 1, 1});
-		table.useAllAvailableWidth();
+		table.getTable().useAllAvailableWidth();
 		final String mapping = String.format("%s Id", resource);
 		table.addHeaderCell(profile.getHeaderCell(INPUT));
 		table.addHeaderCell(profile.getHeaderCell(mapping));
@@ -168,13 +209,27 @@ class Tables {
 			index++;
 		}
 		fillLastRow(table, interactors.size(), 0, profile);
-		return table;
+		return table.finish();
 	}
 
 	static Table getInteractorsExpressionTable(Collection<FoundInteractor> interactors, String resource, PdfProfile profile, List<String> columns) {
 		final int rows = Math.min(6, columns.size());
-		final Table table = new Table(UnitValue.createPercentArray(3 + rows));
-		table.useAllAvailableWidth();
+		return fillInteractorsExpressionTable(TableWriter.inMemory(UnitValue.createPercentArray(3 + rows)), interactors, resource, profile, columns);
+	}
+
+	/**
+	 * Streams the interactors expression table into document.
+	 *
+	 * @see #getInteractorsExpressionTable(Collection, String, PdfProfile, List)
+	 */
+	static void addInteractorsExpressionTable(Document document, Collection<FoundInteractor> interactors, String resource, PdfProfile profile, List<String> columns) {
+		final int rows = Math.min(6, columns.size());
+		fillInteractorsExpressionTable(TableWriter.streaming(document, UnitValue.createPercentArray(3 + rows)), interactors, resource, profile, columns);
+	}
+
+	private static Table fillInteractorsExpressionTable(TableWriter table, Collection<FoundInteractor> interactors, String resource, PdfProfile profile, List<String> columns) {
+		final int rows = Math.min(6, columns.size());
+		table.getTable().useAllAvailableWidth();
 		table.addHeaderCell(profile.getHeaderCell(INPUT));
 		table.addHeaderCell(profile.getHeaderCell(resource + " Id"));
 		table.addHeaderCell(profile.getHeaderCell(INTERACTS_WITH));
@@ -190,7 +245,7 @@ class Tables {
 			}
 			row++;
 		}
-		return table;
+		return table.finish();
 	}
 
 }
@@ -3,7 +3,6 @@ package org.reactome.server.tools.analysis.report.section;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.element.Paragraph;
-import com.itextpdf.layout.element.Table;
 import org.reactome.server.analysis.core.result.PathwayNodeSummary;
 import org.reactome.server.analysis.core.result.model.PathwayBase;
 import org.reactome.server.tools.analysis.report.AnalysisData;
@@ -12,13 +11,14 @@ import org.reactome.server.tools.analysis.report.style.PdfProfile;
 import org.reactome.server.tools.analysis.report.util.PdfUtils;
 
 import java.util.Arrays;
+import java.util.Locale;
 
 /**
  * Table of top pathways sorted by p-value.
  *
  * @author Chuan-Deng dengchuanbio@gmail.com
  */
-public class TopPathwayTable implements Section {
+public class TopPathwayTable implements Section<Void> {
 
 	private static final java.util.List<String> HEADERS = Arrays.asList(
 			"found",
@@ -30,14 +30,14 @@ public class TopPathwayTable implements Section {
 	);
 
 	@Override
-	public void render(Document document, PdfProfile profile, AnalysisData analysisData) {
+	public void render(Document document, PdfProfile profile, AnalysisData analysisData, Void model) {
 		document.add(profile.getH1("Most significant pathways").setDestination("pathway-list"));
 		document.add(profile.getParagraph(PdfUtils.getProperty("most.significant.pathways", analysisData.getPathways().size())));
 		// Let iText decide the width of the columns
-		final Table table = new Table(new float[]{3, 1, 1, 1, 1, 1, 1});
-		table.setBorder(Border.NO_BORDER);
-		table.useAllAvailableWidth();
-		table.setFixedLayout();
+		final TableWriter table = TableWriter.streaming(document, new float[]{3, 1, 1, 1, 1, 1, 1});
+		table.getTable().setBorder(Border.NO_BORDER);
+		table.getTable().useAllAvailableWidth();
+		table.getTable().setFixedLayout();
 		table.addHeaderCell(profile.getHeaderCell("Pathway name", 2, 1));
 		table.addHeaderCell(profile.getHeaderCell("Entities", 1, 4));
 		table.addHeaderCell(profile.getHeaderCell("Reactions", 1, 2));
@@ -48,19 +48,19 @@ public class TopPathwayTable implements Section {
 			final PathwayBase pathwayBase = pathwayData.getBase();
 			final PathwayNodeSummary pathway = analysisData.getResult().getPathway(pathwayBase.getStId());
 			table.addCell(profile.getPathwayCell(i, pathway));
-			final String entities = String.format("%,d / %,d", pathwayBase.getEntities().getFound(), pathwayBase.getEntities().getTotal());
+			final String entities = String.format(Locale.ENGLISH, "%,d / %,d", pathwayBase.getEntities().getFound(), pathwayBase.getEntities().getTotal());
 			table.addCell(profile.getBodyCell(entities, i));
 			table.addCell(profile.getBodyCell(PdfUtils.formatNumber(pathwayBase.getEntities().getRatio()), i));
 			table.addCell(profile.getBodyCell(PdfUtils.formatNumber(pathwayBase.getEntities().getpValue()), i));
 			table.addCell(profile.getBodyCell(PdfUtils.formatNumber(pathwayBase.getEntities().getFdr()), i));
-			final String reactions = String.format("%,d / %,d",
+			final String reactions = String.format(Locale.ENGLISH, "%,d / %,d",
 					pathway.getData().getReactionsFound(),
 					pathway.getData().getReactionsCount());
 			table.addCell(profile.getBodyCell(reactions, i));
 			table.addCell(profile.getBodyCell(PdfUtils.formatNumber(pathway.getData().getReactionsRatio()), i));
 			i++;
 		}
-		document.add(table);
+		table.finish();
 		document.add(new Paragraph("* False Discovery Rate").setFontSize(profile.getFontSize() - 2));
 	}
 
@@ -1,5 +1,8 @@
 package org.reactome.server.tools.analysis.report.style;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
 import com.itextpdf.kernel.colors.Color;
 import com.itextpdf.kernel.colors.DeviceGray;
 import com.itextpdf.kernel.colors.DeviceRgb;
@@ -17,13 +20,21 @@ import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.VerticalAlignment;
 import org.apache.commons.io.IOUtils;
 import org.reactome.server.analysis.core.result.PathwayNodeSummary;
+import org.reactome.server.tools.analysis.report.exception.AnalysisExporterException;
 import org.reactome.server.tools.analysis.report.exception.AnalysisExporterRuntimeException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Profile model contains the report outlook setting. This settings include
  * margins, font family, font sizes and colors.
+ * <p>
+ * A PdfProfile holds the fonts and the section counter of one document, so a
+ * new one must be loaded for every report.
  *
  * @author Chuan-Deng dengchuanbio@gmail.com
  */
@@ -33,6 +44,8 @@ public class PdfProfile {
 	private static final Color REACTOME_COLOR = new DeviceRgb(47, 158, 194);
 	private static final Color LINK_COLOR = REACTOME_COLOR;
 	private static final Color LIGHT_GRAY = new DeviceGray(0.9f);
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+	private static final Map<String, PdfProfile> TEMPLATES = new ConcurrentHashMap<>();
 	private float H1;
 	private float H2;
 	private float H3;
@@ -48,21 +61,45 @@ public class PdfProfile {
 
 	private int toc = 1;
 
-	public PdfProfile() {
-		// Every PDF must load the fonts again, as they are hold by one, and only one document
-		try {
-			byte[] bytes;
-			bytes = IOUtils.toByteArray(PdfProfile.class.getResourceAsStream("SourceSerifPro-Regular.ttf"));
-			REGULAR = PdfFontFactory.createFont(bytes, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED);
-			bytes = IOUtils.toByteArray(PdfProfile.class.getResourceAsStream("SourceSerifPro-Bold.ttf"));
-			BOLD = PdfFontFactory.createFont(bytes, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED);
-			bytes = IOUtils.toByteArray(PdfProfile.class.getResourceAsStream("SourceSerifPro-Semibold.ttf"));
-			LIGHT = PdfFontFactory.createFont(bytes, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED);
-			bytes = IOUtils.toByteArray(PdfProfile.class.getResourceAsStream("OpenSans-Italic.ttf"));
-			ITALIC = PdfFontFactory.createFont(bytes, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED);
-		} catch (IOException e) {
-			throw new AnalysisExporterRuntimeException("Internal error. Couldn't read fonts", e);
+	/**
+	 * Used by Jackson to read templates. Templates have no fonts.
+	 */
+	private PdfProfile() {
+	}
+
+	/**
+	 * Every PDF must create its fonts again, as they are hold by one, and only
+	 * one document. Font programs are parsed once and shared.
+	 */
+	private PdfProfile(PdfProfile template) {
+		this.margin = template.margin;
+		setFontSize((int) template.fontSize);
+		REGULAR = PdfFontFactory.createFont(FontPrograms.REGULAR);
+		BOLD = PdfFontFactory.createFont(FontPrograms.BOLD);
+		LIGHT = PdfFontFactory.createFont(FontPrograms.LIGHT);
+		ITALIC = PdfFontFactory.createFont(FontPrograms.ITALIC);
+	}
+
+	/**
+	 * Creates a new profile for one document. Profile templates are read once
+	 * per JVM.
+	 *
+	 * @param name name of the profile, e.g. breathe
+	 */
+	public static PdfProfile load(String name) throws AnalysisExporterException {
+		final String key = name.toLowerCase(Locale.ENGLISH);
+		PdfProfile template = TEMPLATES.get(key);
+		if (template == null) {
+			try (InputStream resource = PdfProfile.class.getResourceAsStream(key + ".json")) {
+				if (resource == null) throw new AnalysisExporterException("Unknown profile " + name);
+				template = MAPPER.readValue(resource, PdfProfile.class);
+			} catch (IOException e) {
+				throw new AnalysisExporterException("Unknown profile " + name, e);
+			}
+			final PdfProfile previous = TEMPLATES.putIfAbsent(key, template);
+			if (previous != null) template = previous;
 		}
+		return new PdfProfile(template);
 	}
 
 	public MarginProfile getMargin() {
@@ -210,4 +247,22 @@ public class PdfProfile {
 					.setMultipliedLeading(1.0f));
 		return cell;
 	}
+
+	/**
+	 * Parsed font programs, loaded the first time a profile is created.
+	 */
+	private static class FontPrograms {
+		private static final FontProgram REGULAR = read("SourceSerifPro-Regular.ttf");
+		private static final FontProgram BOLD = read("SourceSerifPro-Bold.ttf");
+		private static final FontProgram LIGHT = read("SourceSerifPro-Semibold.ttf");
+		private static final FontProgram ITALIC = read("OpenSans-Italic.ttf");
+
+		private static FontProgram read(String filename) {
+			try (InputStream resource = PdfProfile.class.getResourceAsStream(filename)) {
+				return FontProgramFactory.createFont(IOUtils.toByteArray(resource));
+			} catch (IOException e) {
+				throw new AnalysisExporterRuntimeException("Internal error. Couldn't read fonts", e);
+			}
+		}
+	}
 }
@@ -1,7 +1,8 @@
 package org.reactome.server.tools.analysis.report.util;
 
 import com.itextpdf.layout.element.Text;
-import org.reactome.server.graph.domain.model.*;
+import org.reactome.server.tools.analysis.report.metadata.PersonMetadata;
+import org.reactome.server.tools.analysis.report.metadata.PublicationMetadata;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
@@ -14,20 +15,20 @@ import java.util.stream.Collectors;
 public class ApaStyle {
 	private ApaStyle() {}
 
-	public static List<Text> toApa(Publication publication) {
-		if (publication instanceof LiteratureReference)
-			return toApa((LiteratureReference) publication);
-		else if (publication instanceof URL) {
-			return toApa((URL) publication);
-		} else if (publication instanceof Book)
-			return toApa((Book) publication);
-		LoggerFactory.getLogger(ApaStyle.class).warn("Publication subtype not known " + publication.getClassName());
+	public static List<Text> toApa(PublicationMetadata publication) {
+		if (PublicationMetadata.LITERATURE_REFERENCE.equals(publication.getSchemaClass()))
+			return toApaReference(publication);
+		else if (PublicationMetadata.URL.equals(publication.getSchemaClass())) {
+			return toApaUrl(publication);
+		} else if (PublicationMetadata.BOOK.equals(publication.getSchemaClass()))
+			return toApaBook(publication);
+		LoggerFactory.getLogger(ApaStyle.class).warn("Publication subtype not known " + publication.getSchemaClass());
 		return Collections.singletonList(new Text(publication.getDisplayName()));
 	}
 
-	private static List<Text> toApa(LiteratureReference reference) {
+	private static List<Text> toApaReference(PublicationMetadata reference) {
 		final List<Text> citation = new LinkedList<>();
-		citation.add(new Text(toApa(reference.getAuthor())
+		citation.add(new Text(toApa(reference.getAuthors())
 				+ " (" + reference.getYear() + "). " + trim(reference.getTitle())));
 		if (reference.getJournal() != null)
 			citation.add(new Text(". " + reference.getJournal().trim()));
@@ -47,20 +48,20 @@ public class ApaStyle {
 		return title;
 	}
 
-	private static List<Text> toApa(URL url) {
+	private static List<Text> toApaUrl(PublicationMetadata url) {
 		return Collections.singletonList(new Text(url.getTitle() +
 				". Retrieved from " +
-				url.getUniformResourceLocator()));
+				url.getUrl()));
 	}
 
-	private static List<Text> toApa(Book book) {
+	private static List<Text> toApaBook(PublicationMetadata book) {
 		// year			    *
 		// title 			*
 		// chapterTitle	    opt
 		// ISBN 			opt
 		// pages			opt
 		final List<Text> citation = new LinkedList<>();
-		citation.add(new Text(toApa(book.getAuthor())
+		citation.add(new Text(toApa(book.getAuthors())
 				+ " (" + book.getYear() + ")"));
 		if (book.getChapterTitle() != null) {
 			citation.add(new Text(". "));
@@ -76,7 +77,7 @@ public class ApaStyle {
 		return citation;
 	}
 
-	private static String toApa(List<Person> author) {
+	private static String toApa(List<PersonMetadata> author) {
 		final StringBuilder citation = new StringBuilder();
 		if (author.size() == 1)
 			citation.append(apa(author.get(0)));
@@ -95,7 +96,7 @@ public class ApaStyle {
 	}
 
 
-	private static String apa(Person person) {
+	private static String apa(PersonMetadata person) {
 		if (person.getSurname() != null && person.getInitial() != null)
 			return person.getSurname() + " " + person.getInitial();
 		if (person.getSurname() != null && person.getFirstname() != null)
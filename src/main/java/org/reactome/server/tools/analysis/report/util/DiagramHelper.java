@@ -4,10 +4,8 @@ import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Image;
 import com.itextpdf.layout.properties.HorizontalAlignment;
-import org.reactome.server.analysis.core.result.AnalysisStoredResult;
-import org.reactome.server.graph.domain.result.DiagramResult;
-import org.reactome.server.graph.service.DiagramService;
-import org.reactome.server.graph.utils.ReactomeGraphCore;
+import org.reactome.server.tools.analysis.report.AnalysisData;
+import org.reactome.server.tools.analysis.report.metadata.DiagramMetadata;
 import org.reactome.server.tools.diagram.exporter.common.analysis.AnalysisException;
 import org.reactome.server.tools.diagram.exporter.common.profiles.factory.DiagramJsonDeserializationException;
 import org.reactome.server.tools.diagram.exporter.common.profiles.factory.DiagramJsonNotFoundException;
@@ -19,47 +17,125 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.Semaphore;
 
 /**
  * Help to create the diagram image by invoking the Reactome {@link
- * RasterExporter}.
+ * RasterExporter}. Profiles are taken from the {@link AnalysisData} of each
+ * report, so one instance can be shared by concurrent reports.
  *
  * @author Chuan Deng dengchuanbio@gmail.com
  */
 public class DiagramHelper {
 
 	private static final Logger logger = LoggerFactory.getLogger(DiagramHelper.class.getName());
-	private static RasterExporter exporter;
-	private static DiagramService diagramService = ReactomeGraphCore.getService(DiagramService.class);
-	private static String diagramProfile;
-	private static String analysisProfile;
+	/**
+	 * Diagrams whose vector content is larger are embedded as raster images.
+	 */
+	private static final long DEFAULT_RASTER_THRESHOLD = 4 * 1024 * 1024;
+	private static final int DEFAULT_RASTER_QUALITY = 5;
+	private final RasterExporter exporter;
+	private volatile Semaphore permits;
+	private volatile long rasterThreshold = DEFAULT_RASTER_THRESHOLD;
+	private volatile int rasterQuality = DEFAULT_RASTER_QUALITY;
 
-	public static void insertDiagram(String stId, AnalysisStoredResult result, String resource, Document document) {
-		final DiagramResult diagramResult = diagramService.getDiagramResult(stId);
-		final RasterArgs args = new RasterArgs(diagramResult.getDiagramStId(), "pdf");
-		args.setSelected(diagramResult.getEvents());
-		args.setWriteTitle(false);
-		args.setResource(resource);
-		args.setProfiles(new ColorProfiles(diagramProfile, analysisProfile, null));
+	public DiagramHelper(String diagramPath, String ehldPath, String analysisPath, String svgSummary) {
+		exporter = new RasterExporter(diagramPath, ehldPath, analysisPath, svgSummary);
+	}
+
+	public void insertDiagram(DiagramMetadata diagram, AnalysisData data, Document document) {
+		insertDiagram(exportDiagram(diagram, data), document);
+	}
+
+	/**
+	 * Runs the {@link RasterExporter} for diagram, with its events selected.
+	 * If the vector content of the diagram is larger than the raster
+	 * threshold, the diagram is exported again as a raster image. This method
+	 * does not touch the report document, so it can be called from any
+	 * thread.
+	 *
+	 * @return the exported diagram, or null if the diagram couldn't be
+	 * exported
+	 */
+	public ExportedImage exportDiagram(DiagramMetadata diagram, AnalysisData data) {
+		if (diagram == null) return null;
+		final Semaphore permits = this.permits;
 		try {
-			final Document imagePdf = exporter.exportToPdf(args, result);
-			final PdfFormXObject object = imagePdf.getPdfDocument().getFirstPage().copyAsFormXObject(document.getPdfDocument());
-			final float wi = document.getPdfDocument().getLastPage().getPageSize().getWidth() - document.getLeftMargin() - document.getRightMargin() - 0.1f;  // avoid image too large
-			final float he = 0.5f * document.getPdfDocument().getLastPage().getPageSize().getHeight() - document.getTopMargin() - document.getBottomMargin();
-			document.add(new Image(object).scaleToFit(wi, he).setHorizontalAlignment(HorizontalAlignment.CENTER));
-			document.flush();
+			if (permits != null) permits.acquire();
+			try {
+				final Document vector = exporter.exportToPdf(createArgs(diagram, data, "pdf"), data.getResult());
+				final long threshold = rasterThreshold;
+				if (vector == null || threshold <= 0) return ExportedImage.vector(vector);
+				final long size = ExportedImage.getContentSize(vector);
+				if (size <= threshold) return ExportedImage.vector(vector);
+				logger.info("Diagram {} has {} bytes of vector content, embedded as raster", diagram.getDiagramStId(), size);
+				final RasterArgs args = createArgs(diagram, data, "png");
+				args.setQuality(rasterQuality);
+				return ExportedImage.raster(exporter.exportToImage(args, data.getResult()));
+			} finally {
+				if (permits != null) permits.release();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.error("Interrupted while waiting to export diagram " + diagram.getDiagramStId());
+			return null;
 		} catch (AnalysisException | EhldException | DiagramJsonNotFoundException | DiagramJsonDeserializationException | IOException e) {
-			logger.error("Couldn't insert diagram " + stId, e);
+			logger.error("Couldn't insert diagram " + diagram.getDiagramStId(), e);
+			return null;
 		}
 	}
 
-	public static void setPaths(String diagramPath, String ehldPath, String analysisPath, String svgSummary) {
-		exporter = new RasterExporter(diagramPath, ehldPath, analysisPath, svgSummary);
+	private RasterArgs createArgs(DiagramMetadata diagram, AnalysisData data, String format) {
+		final RasterArgs args = new RasterArgs(diagram.getDiagramStId(), format);
+		args.setSelected(diagram.getEvents());
+		args.setWriteTitle(false);
+		args.setResource(data.getResource());
+		args.setProfiles(new ColorProfiles(data.getDiagramProfile(), data.getAnalysisProfile(), null));
+		return args;
 	}
 
-	public static void setProfiles(String diagramProfile, String analysisProfile) {
-		DiagramHelper.diagramProfile = diagramProfile;
-		DiagramHelper.analysisProfile = analysisProfile;
+	/**
+	 * Diagrams whose vector content (content streams of the exported page)
+	 * is larger than threshold bytes are embedded as raster images, so the
+	 * size of each diagram in the report is bounded.
+	 *
+	 * @param threshold size of the vector content, 0 or less to always
+	 *                  embed vector graphics
+	 * @param quality   quality of the raster images, from 1 to 10
+	 */
+	public void setRasterThreshold(long threshold, int quality) {
+		this.rasterQuality = quality;
+		this.rasterThreshold = threshold;
 	}
 
+	/**
+	 * @param permits if not null, every export takes one of its permits
+	 */
+	public void setPermits(Semaphore permits) {
+		this.permits = permits;
+	}
+
+	/**
+	 * Copies an exported diagram into document, scaled to fit half of the
+	 * page. Must be called from the thread laying out document.
+	 */
+	public static void insertDiagram(ExportedImage image, Document document) {
+		if (image == null) return;
+		try {
+			insertDiagram(image.toFormXObject(document.getPdfDocument()), document);
+		} catch (IOException e) {
+			logger.error("Couldn't insert diagram", e);
+		}
+	}
+
+	/**
+	 * Adds a diagram already copied into document, scaled to fit half of the
+	 * page.
+	 */
+	private static void insertDiagram(PdfFormXObject object, Document document) {
+		final float wi = document.getPdfDocument().getLastPage().getPageSize().getWidth() - document.getLeftMargin() - document.getRightMargin() - 0.1f;  // avoid image too large
+		final float he = 0.5f * document.getPdfDocument().getLastPage().getPageSize().getHeight() - document.getTopMargin() - document.getBottomMargin();
+		document.add(new Image(object).scaleToFit(wi, he).setHorizontalAlignment(HorizontalAlignment.CENTER));
+		document.flush();
+	}
 }
@@ -0,0 +1,212 @@
+package org.reactome.server.tools.analysis.report.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Thread safe cache of byte arrays stored as files in a directory, with a
+ * maximum total size. When full, the least recently used entries are deleted.
+ * Entries already in the directory are kept when the cache is created, so the
+ * cache survives restarts. Files are named by the SHA-256 of their key, and
+ * written into a temporary file first, so readers never see partial entries.
+ * Temporary files left by a previous run that stopped while writing are
+ * deleted when the cache is created.
+ */
+public class DiskCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(DiskCache.class);
+	private static final String SUFFIX = ".bin";
+	private static final String TMP_SUFFIX = ".tmp";
+
+	private final Path directory;
+	private final long maxBytes;
+	/**
+	 * File name to size, in access order.
+	 */
+	private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes;
+
+	public DiskCache(Path directory, long maxBytes) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.maxBytes = maxBytes;
+		try (Stream<Path> files = Files.list(directory)) {
+			files.filter(file -> file.getFileName().toString().endsWith(TMP_SUFFIX))
+					.forEach(DiskCache::deleteQuietly);
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+					.sorted(Comparator.comparing(DiskCache::lastModified))
+					.forEach(file -> {
+						final long size = file.toFile().length();
+						entries.put(file.getFileName().toString(), size);
+						bytes += size;
+					});
+		}
+		synchronized (this) {
+			evict();
+		}
+	}
+
+	/**
+	 * @return the content stored for key, or null if not in the cache
+	 */
+	public byte[] get(String key) {
+		final String name = name(key);
+		synchronized (this) {
+			if (entries.get(name) == null) return null;
+		}
+		final Path file = directory.resolve(name);
+		try {
+			final byte[] content = Files.readAllBytes(file);
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+			return content;
+		} catch (NoSuchFileException e) {
+			// evicted meanwhile
+			return null;
+		} catch (IOException e) {
+			logger.warn("Couldn't read cache entry " + file, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Copies the content stored for key into destination, without loading it
+	 * in memory.
+	 *
+	 * @return false if key is not in the cache
+	 * @throws IOException if destination could not be written
+	 */
+	public boolean copy(String key, OutputStream destination) throws IOException {
+		final String name = name(key);
+		synchronized (this) {
+			if (entries.get(name) == null) return false;
+		}
+		final Path file = directory.resolve(name);
+		final InputStream input;
+		try {
+			input = Files.newInputStream(file);
+			Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (NoSuchFileException e) {
+			// evicted meanwhile
+			return false;
+		}
+		try (InputStream in = input) {
+			final byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) >= 0) destination.write(buffer, 0, read);
+		}
+		return true;
+	}
+
+	/**
+	 * Stores content for key. Content larger than the cache is not stored.
+	 */
+	public void put(String key, byte[] content) {
+		if (content.length > maxBytes) return;
+		try {
+			final Path tmp = createTempFile();
+			try {
+				Files.write(tmp, content);
+				put(key, tmp);
+			} finally {
+				Files.deleteIfExists(tmp);
+			}
+		} catch (IOException e) {
+			logger.warn("Couldn't write cache entry for " + key, e);
+		}
+	}
+
+	/**
+	 * Stores the content of file for key, moving file into the cache. File
+	 * should have been created with {@link #createTempFile()}, so it can be
+	 * moved atomically. Files larger than the cache are not stored.
+	 */
+	public void put(String key, Path file) {
+		final String name = name(key);
+		final Path target = directory.resolve(name);
+		final long size;
+		try {
+			size = Files.size(file);
+			if (size > maxBytes) return;
+			Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			logger.warn("Couldn't write cache entry " + target, e);
+			return;
+		}
+		synchronized (this) {
+			final Long previous = entries.put(name, size);
+			if (previous != null) bytes -= previous;
+			bytes += size;
+			evict();
+		}
+	}
+
+	/**
+	 * @return a new empty file in the directory of the cache, ignored by the
+	 * cache until it is stored with {@link #put(String, Path)}
+	 */
+	public Path createTempFile() throws IOException {
+		return Files.createTempFile(directory, "entry", TMP_SUFFIX);
+	}
+
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	private void evict() {
+		final Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+		while (bytes > maxBytes && iterator.hasNext()) {
+			final Map.Entry<String, Long> eldest = iterator.next();
+			iterator.remove();
+			bytes -= eldest.getValue();
+			try {
+				Files.deleteIfExists(directory.resolve(eldest.getKey()));
+			} catch (IOException e) {
+				logger.warn("Couldn't delete cache entry " + eldest.getKey(), e);
+			}
+		}
+	}
+
+	private static String name(String key) {
+		try {
+			final byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder builder = new StringBuilder();
+			for (byte b : hash) builder.append(String.format("%02x", b));
+			return builder.append(SUFFIX).toString();
+		} catch (NoSuchAlgorithmException e) {
+			// every JVM implements SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			logger.warn("Couldn't delete temporary file " + file, e);
+		}
+	}
+
+	private static FileTime lastModified(Path file) {
+		try {
+			return Files.getLastModifiedTime(file);
+		} catch (IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package org.reactome.server.tools.analysis.report.util;
+
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.*;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Document;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * An image exported by the diagram or fireworks exporters, either as vector
+ * graphics, in the first page of a document, or as a raster image, used when
+ * the vector content is too complex. Images are not bound to any report, so
+ * they can be created before the report is laid out.
+ */
+public class ExportedImage {
+
+	private final PdfDocument vector;
+	private final BufferedImage raster;
+
+	private ExportedImage(PdfDocument vector, BufferedImage raster) {
+		this.vector = vector;
+		this.raster = raster;
+	}
+
+	public static ExportedImage vector(Document document) {
+		return document == null ? null : new ExportedImage(document.getPdfDocument(), null);
+	}
+
+	/**
+	 * @param content a PDF, as written by {@link #toPdf()}
+	 */
+	public static ExportedImage pdf(byte[] content) throws IOException {
+		return new ExportedImage(new PdfDocument(new PdfReader(new ByteArrayInputStream(content))), null);
+	}
+
+	public static ExportedImage raster(BufferedImage image) {
+		return image == null ? null : new ExportedImage(null, image);
+	}
+
+	public boolean isRaster() {
+		return raster != null;
+	}
+
+	/**
+	 * Adds the image to destination as a form XObject.
+	 */
+	public PdfFormXObject toFormXObject(PdfDocument destination) throws IOException {
+		if (vector != null) return vector.getFirstPage().copyAsFormXObject(destination);
+		final Rectangle box = new Rectangle(raster.getWidth(), raster.getHeight());
+		final PdfFormXObject object = new PdfFormXObject(box);
+		new PdfCanvas(object, destination).addImageFittedIntoRectangle(toImageData(), box, false);
+		return object;
+	}
+
+	/**
+	 * @return the image as a standalone one page PDF
+	 */
+	public byte[] toPdf() throws IOException {
+		final ByteArrayOutputStream os = new ByteArrayOutputStream();
+		try (PdfDocument page = new PdfDocument(new PdfWriter(os))) {
+			if (vector != null) vector.copyPagesTo(1, 1, page);
+			else {
+				final Rectangle box = new Rectangle(raster.getWidth(), raster.getHeight());
+				new PdfCanvas(page.addNewPage(new PageSize(box))).addImageFittedIntoRectangle(toImageData(), box, false);
+			}
+		}
+		return os.toByteArray();
+	}
+
+	private ImageData toImageData() throws IOException {
+		return ImageDataFactory.create(raster, null);
+	}
+
+	/**
+	 * Size, in bytes, of the decoded content of the first page of document,
+	 * including the form XObjects it draws. Used to measure how complex the
+	 * vector output of an exporter is.
+	 */
+	public static long getContentSize(Document document) {
+		final PdfPage page = document.getPdfDocument().getFirstPage();
+		long size = page.getContentBytes().length;
+		final PdfDictionary xObjects = page.getResources().getResource(PdfName.XObject);
+		if (xObjects != null) {
+			for (PdfName name : xObjects.keySet()) {
+				final PdfStream stream = xObjects.getAsStream(name);
+				if (stream != null && PdfName.Form.equals(stream.getAsName(PdfName.Subtype)))
+					size += stream.getBytes().length;
+			}
+		}
+		return size;
+	}
+}
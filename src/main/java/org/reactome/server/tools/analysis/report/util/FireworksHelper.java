@@ -11,27 +11,137 @@ import org.reactome.server.tools.fireworks.exporter.common.api.FireworkArgs;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
 
 /**
  * Help to create the fireworks image by invoking the Reactome {@link
- * FireworksExporter}.
+ * FireworksExporter}. The profile is taken from the {@link AnalysisData} of
+ * each report, so one instance can be shared by concurrent reports.
+ * <p>
+ * The fireworks depend only on the token, species, profile, database version
+ * and raster threshold, so, if a {@link DiskCache} is set, the rendered page
+ * is kept as a one page PDF and repeated downloads of the same analysis skip
+ * the render.
  *
  * @author Chuan-Deng dengchuanbio@gmail.com
  */
 public class FireworksHelper {
 
 	private static final Integer QUALITY = 3;
-	private static FireworksExporter exporter;
-	private static String profile;
+	private static final long DEFAULT_RASTER_THRESHOLD = 4 * 1024 * 1024;
+	private final FireworksExporter exporter;
+	private volatile Semaphore permits;
+	private volatile DiskCache cache;
+	private volatile long rasterThreshold = DEFAULT_RASTER_THRESHOLD;
 
-	public static void insertFireworks(Document document, AnalysisData data) throws AnalysisServerError {
+	public FireworksHelper(String fireworksPath, String analysisPath) {
+		exporter = new FireworksExporter(fireworksPath, analysisPath);
+	}
+
+	public void insertFireworks(Document document, AnalysisData data) throws AnalysisServerError {
+		insertFireworks(document, exportFireworks(data));
+	}
+
+	/**
+	 * Renders the fireworks of the analysis, or reads them from the cache.
+	 * This method does not touch the report document, so it can be called
+	 * from any thread.
+	 *
+	 * @return the fireworks image, or null if they couldn't be rendered
+	 */
+	public ExportedImage exportFireworks(AnalysisData data) throws AnalysisServerError {
+		return export(data, rasterThreshold, false).image;
+	}
+
+	/**
+	 * Same as {@link #exportFireworks(AnalysisData)}, but reports sharing the
+	 * same map, such as the variants of one analysis, render the fireworks of
+	 * the same token, species and profile only once. The first report gets
+	 * the rendered image, the others a copy of it. If the render fails, every
+	 * report sharing it fails with the same exception.
+	 *
+	 * @param shared rendered fireworks, as one page PDFs, null if they
+	 *               couldn't be rendered
+	 */
+	public ExportedImage exportFireworks(AnalysisData data, ConcurrentMap<String, CompletableFuture<byte[]>> shared) throws AnalysisServerError {
+		final long threshold = rasterThreshold;
+		final CompletableFuture<byte[]> render = new CompletableFuture<>();
+		final CompletableFuture<byte[]> previous = shared.putIfAbsent(key(data, threshold), render);
+		if (previous != null) {
+			final byte[] content;
+			try {
+				content = previous.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof AnalysisServerError) throw (AnalysisServerError) e.getCause();
+				if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+				throw e;
+			}
+			if (content == null) return null;
+			try {
+				return ExportedImage.pdf(content);
+			} catch (IOException e) {
+				LoggerFactory.getLogger(FireworksHelper.class).error("Couldn't read shared fireworks", e);
+				return null;
+			}
+		}
+		try {
+			final Exported fireworks = export(data, threshold, true);
+			render.complete(fireworks.content);
+			return fireworks.image;
+		} catch (AnalysisServerError | RuntimeException | Error e) {
+			render.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the fireworks from the cache, or renders them. The rendered
+	 * fireworks are converted to a one page PDF only once, when they are
+	 * stored in the cache or when share is set.
+	 */
+	private Exported export(AnalysisData data, long threshold, boolean share) throws AnalysisServerError {
 		final FireworkArgs args = new FireworkArgs(data.getSpecies().replace(" ", "_"), "png");
 		args.setQuality(QUALITY);
 		args.setWriteTitle(false);
-		args.setProfile(profile);
+		args.setProfile(data.getFireworksProfile());
 		try {
-			final Document fireworks = exporter.renderPdf(args, data.getResult());
-			final PdfFormXObject object = fireworks.getPdfDocument().getFirstPage().copyAsFormXObject(document.getPdfDocument());
+			final DiskCache cache = this.cache;
+			final String key = cache == null ? null : key(data, threshold);
+			if (cache != null) {
+				final byte[] content = cache.get(key);
+				if (content != null) return new Exported(ExportedImage.pdf(content), content);
+			}
+			final ExportedImage fireworks = render(args, data, threshold);
+			if (fireworks == null || (cache == null && !share)) return new Exported(fireworks, null);
+			final byte[] content = fireworks.toPdf();
+			if (cache != null) cache.put(key, content);
+			return new Exported(fireworks, content);
+		} catch (IOException e) {
+			LoggerFactory.getLogger(FireworksHelper.class).error("Couldn't render fireworks", e);
+			return new Exported(null, null);
+		}
+	}
+
+	/**
+	 * Fireworks depend only on the token, species and profile, and on the
+	 * release and raster threshold they were rendered with.
+	 */
+	private static String key(AnalysisData data, long threshold) {
+		return String.join("|", data.getResult().getSummary().getToken(), data.getSpecies(), String.valueOf(data.getFireworksProfile()),
+				String.valueOf(data.getDBVersion()), String.valueOf(threshold));
+	}
+
+	/**
+	 * Adds fireworks to document, scaled to fit half of the page. Must be
+	 * called from the thread laying out document.
+	 */
+	public void insertFireworks(Document document, ExportedImage fireworks) {
+		if (fireworks == null) return;
+		try {
+			final PdfFormXObject object = fireworks.toFormXObject(document.getPdfDocument());
 			final float wi = document.getPdfDocument().getLastPage().getPageSize().getWidth() - document.getLeftMargin() - document.getRightMargin() - 0.1f;  // avoid image too large
 			final float he = 0.5f * document.getPdfDocument().getLastPage().getPageSize().getHeight() - document.getTopMargin() - document.getBottomMargin();
 			document.add(new Image(object).scaleToFit(wi, he).setHorizontalAlignment(HorizontalAlignment.CENTER));
@@ -39,14 +149,66 @@ public class FireworksHelper {
 		} catch (IOException e) {
 			LoggerFactory.getLogger(FireworksHelper.class).error("Couldn't insert fireworks", e);
 		}
+	}
 
+	/**
+	 * Renders the fireworks as vector graphics, or as a raster image if the
+	 * vector content is larger than the raster threshold.
+	 */
+	private ExportedImage render(FireworkArgs args, AnalysisData data, long threshold) throws AnalysisServerError, IOException {
+		final Semaphore permits = this.permits;
+		try {
+			if (permits != null) permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LoggerFactory.getLogger(FireworksHelper.class).error("Interrupted while waiting to export fireworks");
+			return null;
+		}
+		try {
+			final Document vector = exporter.renderPdf(args, data.getResult());
+			if (vector == null || threshold <= 0) return ExportedImage.vector(vector);
+			final long size = ExportedImage.getContentSize(vector);
+			if (size <= threshold) return ExportedImage.vector(vector);
+			LoggerFactory.getLogger(FireworksHelper.class).info("Fireworks of {} have {} bytes of vector content, embedded as raster", data.getSpecies(), size);
+			return ExportedImage.raster(exporter.renderRaster(args, data.getResult()));
+		} finally {
+			if (permits != null) permits.release();
+		}
 	}
 
-	public static void setPaths(String fireworksPath, String analysisPath) {
-		exporter = new FireworksExporter(fireworksPath, analysisPath);
+	/**
+	 * Fireworks whose vector content is larger than threshold bytes are
+	 * embedded as raster images, rendered with the fireworks quality.
+	 *
+	 * @param threshold size of the vector content, 0 or less to always embed
+	 *                  vector graphics
+	 */
+	public void setRasterThreshold(long threshold) {
+		this.rasterThreshold = threshold;
+	}
+
+	/**
+	 * @param cache if not null, rendered fireworks are stored in and read from
+	 *              this cache
+	 */
+	public void setCache(DiskCache cache) {
+		this.cache = cache;
 	}
 
-	public static void setProfile(String profile) {
-		FireworksHelper.profile = profile;
+	/**
+	 * @param permits if not null, every export takes one of its permits
+	 */
+	public void setPermits(Semaphore permits) {
+		this.permits = permits;
+	}
+
+	private static class Exported {
+		private final ExportedImage image;
+		private final byte[] content;
+
+		private Exported(ExportedImage image, byte[] content) {
+			this.image = image;
+			this.content = content;
+		}
 	}
 }
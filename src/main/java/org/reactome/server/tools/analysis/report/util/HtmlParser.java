@@ -4,197 +4,228 @@ import com.itextpdf.kernel.pdf.action.PdfAction;
 import com.itextpdf.layout.element.Paragraph;
 import org.reactome.server.tools.analysis.report.style.PdfProfile;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-
+import java.util.Locale;
+
+/**
+ * Converts the small subset of HTML used in Reactome texts into paragraphs.
+ * Supported tags are &lt;i&gt;, &lt;b&gt;, &lt;sub&gt; and &lt;a href&gt;,
+ * which can be nested, and &lt;br&gt;, &lt;p&gt; and &lt;/p&gt;, which split
+ * the text into paragraphs. Any other tag is kept as text.
+ * <p>
+ * The text is scanned once into a list of styled spans per paragraph. Spans
+ * do not depend on the document, so the spans of each summation are cached by
+ * release and dbId and only converted into iText elements for every report.
+ */
 public class HtmlParser {
 
-	private static final Pattern SUB = Pattern.compile("(?i)<sub>(.*?)</sub>");
-	private static final Pattern HREF = Pattern.compile("(?i)href=\"(.*?)\"");
-	private static final Pattern A = Pattern.compile("(?i)<a(.*?)>(.*?)</a>");
-	private static final Pattern ITALIC = Pattern.compile("(?i)<i>(.*?)</i>");
-	private static final Pattern BOLD = Pattern.compile("(?i)<b>(.*?)</b>");
+	private static final int DEFAULT_SUMMATIONS = 10000;
+	private static final LruCache<String, List<List<Span>>> SUMMATIONS = new LruCache<>(DEFAULT_SUMMATIONS);
+
+	private static final int ITALIC = 1;
+	private static final int BOLD = 2;
+	private static final int SUB = 4;
+
+	/**
+	 * @param summations max number of parsed summations kept in memory
+	 */
+	public static void setMaxSize(int summations) {
+		SUMMATIONS.setMaxSize(summations);
+	}
 
 	public static Paragraph parseParagraph(String html, PdfProfile profile) {
-		List<Span> spans = new LinkedList<>();
-		spans.add(new Text(html));
-		spans = trimItalic(spans);
-		spans = trimBold(spans);
-		spans = trimSubs(spans);
-		spans = trimLinks(spans);
-		final Paragraph paragraph = profile.getParagraph("");
-		spans.forEach(span -> span.render(paragraph, profile));
-		return paragraph;
+		return renderParagraph(tokenize(html, false).get(0), profile);
 	}
 
 	public static Collection<Paragraph> parseText(PdfProfile profile, String text) {
-		final String[] paragraphs = text.split("(?i)<br>|<p>|</p>");
-		return Arrays.stream(paragraphs)
-				.map(String::trim)
-				.filter(p -> !p.isEmpty())
-				.map(p -> parseParagraph(p, profile))
-				.collect(Collectors.toList());
+		return render(tokenize(text, true), profile);
 	}
 
-	private static List<Span> trimItalic(List<Span> in) {
-		List<Span> spans = new LinkedList<>();
-		for (Span span : in) {
-			if (span instanceof Text) {
-				final String text = span.text;
-				final Matcher matcher = ITALIC.matcher(text);
-				int start = 0;
-				while (matcher.find()) {
-					spans.add(new Text(text.substring(start, matcher.start())));
-					spans.add(new Italic(matcher.group(1)));
-					start = matcher.end();
-				}
-				spans.add(new Text(text.substring(start)));
-			} else spans.add(span);
-		}
-		return spans;
+	/**
+	 * Same as {@link #parseText(PdfProfile, String)}, but the parsed text is
+	 * cached by release and dbId, so the same summation is parsed only once.
+	 *
+	 * @param release release of the database
+	 * @param dbId    dbId of the summation, if null, text is not cached
+	 */
+	public static Collection<Paragraph> parseSummation(PdfProfile profile, int release, Long dbId, String text) {
+		if (dbId == null) return parseText(profile, text);
+		return render(SUMMATIONS.computeIfAbsent(release + ":" + dbId, key -> tokenize(text, true)), profile);
 	}
 
-	private static List<Span> trimBold(List<Span> in) {
-		List<Span> spans = new LinkedList<>();
-		for (Span span : in) {
-			if (span instanceof Text) {
-				final String text = span.text;
-				final Matcher matcher = BOLD.matcher(text);
-				int start = 0;
-				while (matcher.find()) {
-					spans.add(new Text(text.substring(start, matcher.start())));
-					spans.add(new Bold(matcher.group(1)));
-					start = matcher.end();
-				}
-				spans.add(new Text(text.substring(start)));
-			} else spans.add(span);
-		}
-		return spans;
+	private static Collection<Paragraph> render(List<List<Span>> paragraphs, PdfProfile profile) {
+		final List<Paragraph> rendered = new ArrayList<>(paragraphs.size());
+		for (List<Span> spans : paragraphs) rendered.add(renderParagraph(spans, profile));
+		return rendered;
 	}
 
-	private static List<Span> trimSubs(List<Span> in) {
-		List<Span> spans = new LinkedList<>();
-		for (Span span : in) {
-			if (span instanceof Text) {
-				final String text = span.text;
-				final Matcher matcher = SUB.matcher(text);
-				int start = 0;
-				while (matcher.find()) {
-					spans.add(new Text(text.substring(start, matcher.start())));
-					spans.add(new Sub(matcher.group(1)));
-					start = matcher.end();
-				}
-				spans.add(new Text(text.substring(start)));
-			} else spans.add(span);
-		}
-		return spans;
+	private static Paragraph renderParagraph(List<Span> spans, PdfProfile profile) {
+		final Paragraph paragraph = profile.getParagraph("");
+		for (Span span : spans) span.render(paragraph, profile);
+		return paragraph;
 	}
 
-	private static List<Span> trimLinks(List<Span> in) {
-		List<Span> spans = new LinkedList<>();
-		for (Span span : in) {
-			if (span instanceof Text) {
-				final String text = span.text;
-				final Matcher matcher = A.matcher(text);
-				int start = 0;
-				while (matcher.find()) {
-					spans.add(new Text(text.substring(start, matcher.start())));
-					String linkText = matcher.group(2);
-					String link = extractLink(matcher.group(1));
-					spans.add(new Link(linkText, link));
-					start = matcher.end();
-				}
-				spans.add(new Text(text.substring(start)));
-			} else spans.add(span);
+	/**
+	 * Scans html once, splitting paragraphs (if split is true) and keeping a
+	 * stack of the open tags, so nested tags add their styles. Split
+	 * paragraphs lose the whitespace around them, and are skipped if nothing
+	 * else is left. A single paragraph is kept as is.
+	 *
+	 * @return the spans of each paragraph
+	 */
+	static List<List<Span>> tokenize(String html, boolean split) {
+		final List<List<Span>> paragraphs = new ArrayList<>();
+		List<Span> spans = new ArrayList<>();
+		final StringBuilder text = new StringBuilder();
+		int italic = 0, bold = 0, sub = 0;
+		final List<String> links = new ArrayList<>();
+		// true while the paragraph has only whitespace, which is then dropped
+		boolean blank = split;
+		int i = 0;
+		while (i < html.length()) {
+			final int open = html.indexOf('<', i);
+			final int close = open < 0 ? -1 : html.indexOf('>', open);
+			if (close < 0) {
+				blank = appendText(text, html, i, html.length(), blank);
+				break;
+			}
+			final int next = html.indexOf('<', open + 1);
+			if (next >= 0 && next < close) {
+				// a '<' which is not a tag
+				blank = appendText(text, html, i, next, blank);
+				i = next;
+				continue;
+			}
+			blank = appendText(text, html, i, open, blank);
+			i = close + 1;
+			final String tag = html.substring(open + 1, close);
+			final String name = tagName(tag);
+			if (split && (name.equals("br") || name.equals("p") || name.equals("/p"))) {
+				stripTrailing(text);
+				addSpan(spans, text, italic, bold, sub, links);
+				if (!blank) paragraphs.add(Collections.unmodifiableList(spans));
+				spans = new ArrayList<>();
+				blank = true;
+				continue;
+			}
+			blank = false;
+			switch (name) {
+				case "i":
+				case "b":
+				case "sub":
+				case "a":
+					addSpan(spans, text, italic, bold, sub, links);
+					if (name.equals("i")) italic++;
+					else if (name.equals("b")) bold++;
+					else if (name.equals("sub")) sub++;
+					else links.add(extractLink(tag));
+					break;
+				case "/i":
+				case "/b":
+				case "/sub":
+				case "/a":
+					addSpan(spans, text, italic, bold, sub, links);
+					if (name.equals("/i")) italic = Math.max(0, italic - 1);
+					else if (name.equals("/b")) bold = Math.max(0, bold - 1);
+					else if (name.equals("/sub")) sub = Math.max(0, sub - 1);
+					else if (!links.isEmpty()) links.remove(links.size() - 1);
+					break;
+				default:
+					text.append(html, open, close + 1);
+			}
 		}
-		return spans;
+		if (split) stripTrailing(text);
+		addSpan(spans, text, italic, bold, sub, links);
+		if (!blank) paragraphs.add(Collections.unmodifiableList(spans));
+		return paragraphs;
 	}
 
-	private static String extractLink(String text) {
-		final Matcher matcher = HREF.matcher(text);
-		if (matcher.find())
-			return matcher.group(1);
-		return null;
+	/**
+	 * Appends html from start to end to text, without its leading whitespace
+	 * if the paragraph is still blank.
+	 *
+	 * @return whether the paragraph is still blank
+	 */
+	private static boolean appendText(StringBuilder text, String html, int start, int end, boolean blank) {
+		if (blank) while (start < end && Character.isWhitespace(html.charAt(start))) start++;
+		text.append(html, start, end);
+		return blank && start == end;
 	}
 
-	static abstract class Span {
-		String text;
-
-		Span(String text) {
-			this.text = text;
-		}
-
-		abstract void render(Paragraph paragraph, PdfProfile profile);
+	/**
+	 * The name must follow '&lt;' directly, so "a &lt; b &gt; c" is not a tag.
+	 */
+	private static String tagName(String tag) {
+		int end = 0;
+		while (end < tag.length() && !Character.isWhitespace(tag.charAt(end)) && (end == 0 || tag.charAt(end) != '/'))
+			end++;
+		return tag.substring(0, end).toLowerCase(Locale.ENGLISH);
 	}
 
-	static class Text extends Span {
-		Text(String text) {
-			super(text);
-		}
-
-		@Override
-		void render(Paragraph paragraph, PdfProfile profile) {
-			paragraph.add(text);
-		}
+	private static void addSpan(List<Span> spans, StringBuilder text, int italic, int bold, int sub, List<String> links) {
+		if (text.length() == 0) return;
+		int style = 0;
+		if (italic > 0) style |= ITALIC;
+		if (bold > 0) style |= BOLD;
+		if (sub > 0) style |= SUB;
+		spans.add(new Span(text.toString(), style, links.isEmpty() ? null : links.get(links.size() - 1)));
+		text.setLength(0);
 	}
 
-	static class Italic extends Span {
-
-		Italic(String text) {
-			super(text);
-		}
-
-		@Override
-		void render(Paragraph paragraph, PdfProfile profile) {
-			paragraph.add(new com.itextpdf.layout.element.Text(text).setItalic());
-
-		}
+	private static void stripTrailing(StringBuilder text) {
+		int end = text.length();
+		while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) end--;
+		text.setLength(end);
 	}
 
-	private static class Bold extends Span {
-		Bold(String text) {
-			super(text);
-		}
-
-		@Override
-		void render(Paragraph paragraph, PdfProfile profile) {
-			paragraph.add(new com.itextpdf.layout.element.Text(text).setFont(profile.getBold()));
-		}
+	private static String extractLink(String tag) {
+		final int href = tag.toLowerCase(Locale.ENGLISH).indexOf("href=\"");
+		if (href < 0) return null;
+		final int start = href + 6;
+		final int end = tag.indexOf('"', start);
+		return end < 0 ? null : tag.substring(start, end);
 	}
 
-	private static class Link extends Span {
-		private final String link;
+	/**
+	 * A piece of text with the same style.
+	 */
+	static class Span {
+		final String text;
+		final int style;
+		final String link;
 
-		Link(String text, String link) {
-			super(text);
+		Span(String text, int style, String link) {
+			this.text = text;
+			this.style = style;
 			this.link = link;
 		}
 
-		@Override
-		void render(Paragraph paragraph, PdfProfile profile) {
-			if (link == null)
-				paragraph.add(text);
-			else
-				paragraph.add(new com.itextpdf.layout.element.Text(text)
-						.setAction(PdfAction.createURI(link))
-						.setFontColor(profile.getLinkColor()));
+		boolean isItalic() {
+			return (style & ITALIC) != 0;
 		}
 
-	}
+		boolean isBold() {
+			return (style & BOLD) != 0;
+		}
 
-	private static class Sub extends Span {
-		Sub(String text) {
-			super(text);
+		boolean isSub() {
+			return (style & SUB) != 0;
 		}
 
-		@Override
 		void render(Paragraph paragraph, PdfProfile profile) {
-			paragraph.add(new com.itextpdf.layout.element.Text(text).setFontSize(1 + profile.getFontSize() / 2));
+			if (style == 0 && link == null) {
+				paragraph.add(text);
+				return;
+			}
+			final com.itextpdf.layout.element.Text element = new com.itextpdf.layout.element.Text(text);
+			if (isItalic()) element.setItalic();
+			if (isBold()) element.setFont(profile.getBold());
+			if (isSub()) element.setFontSize(1 + profile.getFontSize() / 2);
+			if (link != null) element.setAction(PdfAction.createURI(link)).setFontColor(profile.getLinkColor());
+			paragraph.add(element);
 		}
 	}
 }
@@ -0,0 +1,148 @@
+package org.reactome.server.tools.analysis.report.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Thread safe cache of values loaded from files, such as deserialized analysis
+ * results. Each value weighs the size of its file, which stands for the memory
+ * it retains, and the least recently used values are evicted when the total
+ * weight exceeds the maximum. A value is loaded again when its file is modified,
+ * and never cached if its file does not exist. Concurrent requests of the same
+ * key share a single load.
+ *
+ * @param <V> type of values
+ */
+public class LoadedFileCache<V> {
+
+	private final long maxBytes;
+	private final Function<String, Path> files;
+	private final Function<String, V> loader;
+	private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<String, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+	private long bytes;
+
+	/**
+	 * @param files  file of each key
+	 * @param loader loads the value of a key
+	 */
+	public LoadedFileCache(long maxBytes, Function<String, Path> files, Function<String, V> loader) {
+		this.maxBytes = maxBytes;
+		this.files = files;
+		this.loader = loader;
+	}
+
+	public V get(String key) {
+		final Version version = Version.of(files.apply(key));
+		if (version == null) return loader.apply(key);
+		synchronized (this) {
+			final Entry<V> entry = entries.get(key);
+			if (entry != null) {
+				if (entry.version.equals(version)) return entry.value;
+				entries.remove(key);
+				bytes -= entry.version.size;
+			}
+		}
+		final CompletableFuture<V> load = new CompletableFuture<>();
+		final CompletableFuture<V> running = loading.putIfAbsent(key, load);
+		if (running != null) {
+			try {
+				return running.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+				throw e;
+			}
+		}
+		try {
+			final V value = loader.apply(key);
+			if (value != null) put(key, new Entry<>(value, version));
+			load.complete(value);
+			return value;
+		} catch (RuntimeException e) {
+			load.completeExceptionally(e);
+			throw e;
+		} finally {
+			loading.remove(key, load);
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		bytes = 0;
+	}
+
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	private synchronized void put(String key, Entry<V> entry) {
+		if (entry.version.size > maxBytes) return;
+		final Entry<V> previous = entries.put(key, entry);
+		if (previous != null) bytes -= previous.version.size;
+		bytes += entry.version.size;
+		final Iterator<Entry<V>> iterator = entries.values().iterator();
+		while (bytes > maxBytes && iterator.hasNext()) {
+			bytes -= iterator.next().version.size;
+			iterator.remove();
+		}
+	}
+
+	private static class Entry<V> {
+		private final V value;
+		private final Version version;
+
+		Entry(V value, Version version) {
+			this.value = value;
+			this.version = version;
+		}
+	}
+
+	/**
+	 * Size and modification time of a file.
+	 */
+	private static class Version {
+		private final long size;
+		private final long modified;
+
+		Version(long size, long modified) {
+			this.size = size;
+			this.modified = modified;
+		}
+
+		static Version of(Path file) {
+			try {
+				final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+				return new Version(attributes.size(), attributes.lastModifiedTime().toMillis());
+			} catch (IOException e) {
+				return null;
+			}
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (o == null || getClass() != o.getClass()) return false;
+			final Version that = (Version) o;
+			return size == that.size && modified == that.modified;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(size, modified);
+		}
+	}
+}
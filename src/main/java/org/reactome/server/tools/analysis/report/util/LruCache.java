@@ -0,0 +1,72 @@
+package org.reactome.server.tools.analysis.report.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Thread safe map with a maximum number of entries. When full, the least
+ * recently used entry is evicted.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ */
+public class LruCache<K, V> {
+
+	private final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, 0.75f, true);
+	private int maxSize;
+
+	public LruCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public synchronized V get(K key) {
+		return map.get(key);
+	}
+
+	public synchronized void put(K key, V value) {
+		map.put(key, value);
+		evict();
+	}
+
+	/**
+	 * Gets the value associated with key, computing it if not present. The
+	 * value is computed outside the lock, so two threads may compute the same
+	 * value at the same time, but only the first one is kept.
+	 */
+	public V computeIfAbsent(K key, Function<K, V> function) {
+		V value = get(key);
+		if (value != null) return value;
+		value = function.apply(key);
+		if (value == null) return null;
+		synchronized (this) {
+			final V previous = map.putIfAbsent(key, value);
+			evict();
+			return previous == null ? value : previous;
+		}
+	}
+
+	public synchronized void remove(K key) {
+		map.remove(key);
+	}
+
+	public synchronized void clear() {
+		map.clear();
+	}
+
+	public synchronized int size() {
+		return map.size();
+	}
+
+	public synchronized void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+		evict();
+	}
+
+	private void evict() {
+		while (map.size() > maxSize) {
+			final Map.Entry<K, V> eldest = map.entrySet().iterator().next();
+			map.remove(eldest.getKey());
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package org.reactome.server.tools.analysis.report.util;
+
+import com.itextpdf.kernel.pdf.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rewrites a PDF so its bytes only depend on its content. iText gives every
+ * font subset a random prefix, and every document a random id and the current
+ * time as dates. Subset prefixes are replaced by prefixes assigned in object
+ * order, and id and dates by the given ones.
+ */
+public class PdfNormalizer {
+
+	private static final Pattern SUBSET_PREFIX = Pattern.compile("^([A-Z]{6})\\+");
+
+	private PdfNormalizer() {
+	}
+
+	/**
+	 * @param pdf         the document to normalize
+	 * @param destination where the normalized document is written
+	 * @param id          id of the document, usually a hash of its inputs
+	 * @param date        creation and modification date of the document
+	 */
+	public static void normalize(byte[] pdf, OutputStream destination, byte[] id, Calendar date) throws IOException {
+		normalize(new PdfReader(new ByteArrayInputStream(pdf)), destination, id, date);
+	}
+
+	/**
+	 * Same as {@link #normalize(byte[], OutputStream, byte[], Calendar)}, but
+	 * the document is read from file, which is not loaded whole in memory.
+	 */
+	public static void normalize(Path pdf, OutputStream destination, byte[] id, Calendar date) throws IOException {
+		normalize(new PdfReader(pdf.toString()), destination, id, date);
+	}
+
+	private static void normalize(PdfReader reader, OutputStream destination, byte[] id, Calendar date) throws IOException {
+		final PdfString documentId = new PdfString(id).setHexWriting(true);
+		final WriterProperties properties = new WriterProperties()
+				.setInitialDocumentId(documentId)
+				.setModifiedDocumentId(documentId);
+		final PdfWriter writer = new PdfWriter(destination, properties);
+		writer.setCloseStream(false);
+		try (PdfDocument document = new PdfDocument(reader, writer)) {
+			final Map<String, String> prefixes = new HashMap<>();
+			for (int i = 1; i < document.getNumberOfPdfObjects(); i++) {
+				final PdfObject object = document.getPdfObject(i);
+				if (object == null || !object.isDictionary()) continue;
+				final PdfDictionary dictionary = (PdfDictionary) object;
+				rename(dictionary, PdfName.BaseFont, prefixes);
+				rename(dictionary, PdfName.FontName, prefixes);
+			}
+			final PdfDictionary info = document.getDocumentInfo().getPdfObject();
+			info.put(PdfName.CreationDate, new PdfDate(date).getPdfObject());
+			info.put(PdfName.ModDate, new PdfDate(date).getPdfObject());
+		}
+	}
+
+	private static void rename(PdfDictionary dictionary, PdfName key, Map<String, String> prefixes) {
+		final PdfName name = dictionary.getAsName(key);
+		if (name == null) return;
+		final Matcher matcher = SUBSET_PREFIX.matcher(name.getValue());
+		if (!matcher.find()) return;
+		final String prefix = prefixes.computeIfAbsent(matcher.group(1), random -> prefix(prefixes.size()));
+		dictionary.put(key, new PdfName(prefix + name.getValue().substring(6)));
+		dictionary.setModified();
+	}
+
+	/**
+	 * AAAAAA, AAAAAB, ...
+	 */
+	private static String prefix(int index) {
+		final char[] letters = new char[6];
+		for (int i = letters.length - 1; i >= 0; i--) {
+			letters[i] = (char) ('A' + index % 26);
+			index /= 26;
+		}
+		return new String(letters);
+	}
+}
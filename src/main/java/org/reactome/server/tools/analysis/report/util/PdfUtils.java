@@ -18,8 +18,13 @@ import java.util.Properties;
  */
 public class PdfUtils {
 
-	private static final NumberFormat NUMBER_FORMAT = NumberFormat.getNumberInstance(Locale.ENGLISH);
-	private static final NumberFormat EXP_FORMAT = NumberFormat.getNumberInstance(Locale.ENGLISH);
+	// NumberFormat is not thread safe
+	private static final ThreadLocal<NumberFormat> NUMBER_FORMAT = ThreadLocal.withInitial(() -> {
+		final NumberFormat format = NumberFormat.getNumberInstance(Locale.ENGLISH);
+		format.setMaximumFractionDigits(3);
+		format.setGroupingUsed(true);
+		return format;
+	});
 
 	private static final Properties properties = new Properties();
 
@@ -33,12 +38,6 @@ public class PdfUtils {
 		}
 	}
 
-	static {
-		NUMBER_FORMAT.setMaximumFractionDigits(3);
-		NUMBER_FORMAT.setGroupingUsed(true);
-		EXP_FORMAT.setMaximumFractionDigits(2);
-	}
-
 	public static List<String> getText(InputStream resource) {
 		try {
 			return IOUtils.readLines(resource, Charset.defaultCharset());
@@ -52,8 +51,8 @@ public class PdfUtils {
 			return number.toString();
 		if (Double.compare(number.doubleValue(), 0.0) == 0) return "0";
 		if (number.doubleValue() < 1e-3)
-			return String.format("%.2e", number.doubleValue());
-		return NUMBER_FORMAT.format(number);
+			return String.format(Locale.ENGLISH, "%.2e", number.doubleValue());
+		return NUMBER_FORMAT.get().format(number);
 	}
 
 	public static String getProperty(String key) {
@@ -61,7 +60,7 @@ public class PdfUtils {
 	}
 
 	public static String getProperty(String key, Object... args) {
-		return String.format(getProperty(key), args);
+		return String.format(Locale.ENGLISH, getProperty(key), args);
 	}
 
 }
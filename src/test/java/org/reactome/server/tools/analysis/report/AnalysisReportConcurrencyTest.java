@@ -0,0 +1,92 @@
+package org.reactome.server.tools.analysis.report;
+
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.reactome.server.graph.utils.ReactomeGraphCore;
+import org.reactome.server.tools.analysis.report.exception.AnalysisExporterException;
+import org.reactome.server.tools.analysis.report.util.AnalysisReportGraphConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Renders the same reports sequentially and concurrently with one {@link
+ * AnalysisReport} and checks that the text of every page is the same. PDF bytes
+ * are not compared, as creation dates and document ids change on every run.
+ * <p>
+ * Requires the same external resources as {@link AnalysisReportTest}.
+ */
+public class AnalysisReportConcurrencyTest {
+
+    private static final String TOKEN = "MjAyMTEwMjcxMDM3NDdfMg%3D%3D";
+    private static final int REPETITIONS = 4;
+    private static final String[][] PROFILES = {
+            {"modern", "copper plus", "copper"},
+            {"standard", "standard", "barium lithium"},
+            {"modern", "strosobar", "calcium salts"}
+    };
+
+    private static AnalysisReport RENDERER;
+
+    @BeforeAll
+    public static void beforeClass() {
+        final String ANALYSIS_PATH = "src/test/resources/org/reactome/server/tools/analysis/report/analysis";
+        final String DIAGRAM_PATH = System.getProperty("diagram.folder");
+        final String FIREWORKS_PATH = System.getProperty("fireworks.folder");
+        final String EHLD_PATH = System.getProperty("ehld.folder");
+        final String SVG_SUMMARY = System.getProperty("svg.summary.path");
+        ReactomeGraphCore.initialise(System.getProperty("neo4j.uri"), System.getProperty("neo4j.user"), System.getProperty("neo4j.password"), AnalysisReportGraphConfig.class);
+        RENDERER = new AnalysisReport(DIAGRAM_PATH, EHLD_PATH, FIREWORKS_PATH, ANALYSIS_PATH, SVG_SUMMARY);
+    }
+
+    @Test
+    public void concurrentCreateTest() throws Exception {
+        final List<List<String>> expected = new ArrayList<>();
+        for (String[] profiles : PROFILES)
+            expected.add(extractText(render(profiles)));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(PROFILES.length * REPETITIONS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<byte[]>> futures = new ArrayList<>();
+            for (int r = 0; r < REPETITIONS; r++) {
+                for (String[] profiles : PROFILES) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        return render(profiles);
+                    }));
+                }
+            }
+            start.countDown();
+            for (int i = 0; i < futures.size(); i++) {
+                final List<String> actual = extractText(futures.get(i).get(5, TimeUnit.MINUTES));
+                Assertions.assertEquals(expected.get(i % PROFILES.length), actual, "Report " + i + " differs from its sequential version");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] render(String[] profiles) throws AnalysisExporterException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        RENDERER.create(TOKEN, "TOTAL", 48887L, 10, false, profiles[0], profiles[1], profiles[2], os);
+        return os.toByteArray();
+    }
+
+    private static List<String> extractText(byte[] pdf) throws IOException {
+        final List<String> pages = new ArrayList<>();
+        try (PdfDocument document = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)))) {
+            for (int i = 1; i <= document.getNumberOfPages(); i++)
+                pages.add(PdfTextExtractor.getTextFromPage(document.getPage(i)));
+        }
+        return pages;
+    }
+}
@@ -0,0 +1,174 @@
+package org.reactome.server.tools.analysis.report;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.reactome.server.tools.analysis.report.exception.AnalysisExporterException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReportSchedulerTest {
+
+    private static final ReportArgs ARGS = new ReportArgs("token", "TOTAL", 9606L, 25, false, null, null, null);
+    private static final ReportArgs OTHER_ARGS = new ReportArgs("other", "TOTAL", 9606L, 25, false, null, null, null);
+
+    @Test
+    public void coalesceTest() throws Exception {
+        final StubReport report = new StubReport(1_000_000, 500_000);
+        try (ReportScheduler scheduler = new ReportScheduler(report, 2, 2)) {
+            final ByteArrayOutputStream first = new ByteArrayOutputStream();
+            final ByteArrayOutputStream second = new ByteArrayOutputStream();
+            final CompletableFuture<Void> firstFuture = scheduler.submit(ARGS, first);
+            report.paused.await();
+            final CompletableFuture<Void> secondFuture = scheduler.submit(ARGS, second);
+            Assertions.assertEquals(1, scheduler.getPendingReports());
+            report.resume.countDown();
+            firstFuture.get(10, TimeUnit.SECONDS);
+            secondFuture.get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(1, report.renders.get());
+            Assertions.assertArrayEquals(StubReport.content(1_000_000), first.toByteArray());
+            Assertions.assertArrayEquals(StubReport.content(1_000_000), second.toByteArray());
+            Assertions.assertEquals(0, scheduler.getPendingReports());
+        }
+    }
+
+    @Test
+    public void replayLimitTest() throws Exception {
+        // past the replay limit, an identical request renders the report again
+        final int size = 20 * 1024 * 1024;
+        final StubReport report = new StubReport(size, 17 * 1024 * 1024);
+        try (ReportScheduler scheduler = new ReportScheduler(report, 2, 2)) {
+            final ByteArrayOutputStream first = new ByteArrayOutputStream();
+            final ByteArrayOutputStream second = new ByteArrayOutputStream();
+            final CompletableFuture<Void> firstFuture = scheduler.submit(ARGS, first);
+            report.paused.await();
+            final CompletableFuture<Void> secondFuture = scheduler.submit(ARGS, second);
+            report.resume.countDown();
+            firstFuture.get(30, TimeUnit.SECONDS);
+            secondFuture.get(30, TimeUnit.SECONDS);
+            Assertions.assertEquals(2, report.renders.get());
+            Assertions.assertArrayEquals(StubReport.content(size), first.toByteArray());
+            Assertions.assertArrayEquals(StubReport.content(size), second.toByteArray());
+        }
+    }
+
+    @Test
+    public void rejectTest() throws Exception {
+        final StubReport report = new StubReport(1000, 0);
+        try (ReportScheduler scheduler = new ReportScheduler(report, 1, 1)) {
+            final CompletableFuture<Void> running = scheduler.submit(ARGS, new ByteArrayOutputStream());
+            report.paused.await();
+            final CompletableFuture<Void> queued = scheduler.submit(OTHER_ARGS, new ByteArrayOutputStream());
+            final ReportArgs third = new ReportArgs("third", "TOTAL", 9606L, 25, false, null, null, null);
+            Assertions.assertThrows(RejectedExecutionException.class, () -> scheduler.submit(third, new ByteArrayOutputStream()));
+            // identical requests take no place in the queue
+            final CompletableFuture<Void> shared = scheduler.submit(OTHER_ARGS, new ByteArrayOutputStream());
+            report.resume.countDown();
+            running.get(10, TimeUnit.SECONDS);
+            queued.get(10, TimeUnit.SECONDS);
+            shared.get(10, TimeUnit.SECONDS);
+            Assertions.assertEquals(2, report.renders.get());
+        }
+    }
+
+    @Test
+    public void cancelBeforeStartTest() throws Exception {
+        final StubReport report = new StubReport(1000, 0);
+        try (ReportScheduler scheduler = new ReportScheduler(report, 1, 1)) {
+            final CompletableFuture<Void> running = scheduler.submit(ARGS, new ByteArrayOutputStream());
+            report.paused.await();
+            final ByteArrayOutputStream destination = new ByteArrayOutputStream();
+            final CompletableFuture<Void> queued = scheduler.submit(OTHER_ARGS, destination);
+            queued.cancel(false);
+            report.resume.countDown();
+            running.get(10, TimeUnit.SECONDS);
+            scheduler.shutdown();
+            Assertions.assertTrue(scheduler.awaitTermination(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(1, report.renders.get());
+            Assertions.assertEquals(0, destination.size());
+        }
+    }
+
+    @Test
+    public void slowClientTest() throws Exception {
+        final int size = 8 * 1024 * 1024;
+        final StubReport report = new StubReport(size, 0);
+        final CountDownLatch unblock = new CountDownLatch(1);
+        final OutputStream slow = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+        };
+        try (ReportScheduler scheduler = new ReportScheduler(report, 2, 2)) {
+            scheduler.setSlowClientTimeout(200, TimeUnit.MILLISECONDS);
+            final ByteArrayOutputStream fast = new ByteArrayOutputStream();
+            final CompletableFuture<Void> slowFuture = scheduler.submit(ARGS, slow);
+            report.paused.await();
+            final CompletableFuture<Void> fastFuture = scheduler.submit(ARGS, fast);
+            report.resume.countDown();
+            // the slow client holds the render for the timeout, then it is dropped
+            fastFuture.get(10, TimeUnit.SECONDS);
+            Assertions.assertArrayEquals(StubReport.content(size), fast.toByteArray());
+            final ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> slowFuture.get(10, TimeUnit.SECONDS));
+            Assertions.assertTrue(e.getCause() instanceof IOException);
+        } finally {
+            unblock.countDown();
+        }
+    }
+
+    /**
+     * Writes size bytes in small chunks, and waits for resume once pauseAt
+     * bytes have been written.
+     */
+    private static class StubReport extends AnalysisReport {
+        private static final int CHUNK = 8 * 1024;
+        private final int size;
+        private final int pauseAt;
+        private final CountDownLatch paused = new CountDownLatch(1);
+        private final CountDownLatch resume = new CountDownLatch(1);
+        private final AtomicInteger renders = new AtomicInteger();
+
+        StubReport(int size, int pauseAt) {
+            super(System.getProperty("diagram.folder"), System.getProperty("ehld.folder"), System.getProperty("fireworks.folder"),
+                    "src/test/resources/org/reactome/server/tools/analysis/report/analysis", System.getProperty("svg.summary.path"));
+            this.size = size;
+            this.pauseAt = pauseAt;
+        }
+
+        @Override
+        public void create(ReportArgs args, OutputStream destination) throws AnalysisExporterException {
+            renders.incrementAndGet();
+            final byte[] content = content(size);
+            try {
+                for (int written = 0; written < size; written += CHUNK) {
+                    if (written >= pauseAt && paused.getCount() > 0) {
+                        paused.countDown();
+                        resume.await();
+                    }
+                    destination.write(content, written, Math.min(CHUNK, size - written));
+                }
+            } catch (IOException | InterruptedException e) {
+                throw new AnalysisExporterException("Couldn't write report", e);
+            }
+        }
+
+        private static byte[] content(int size) {
+            final byte[] content = new byte[size];
+            for (int i = 0; i < size; i++) content[i] = (byte) (i * 31);
+            return content;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unlike {@link org.reactome.server.tools.analysis.report.AnalysisReportTest},
+ * this test needs no external resources.
+ */
+public class InMemoryMetadataProviderTest {
+
+    private static InMemoryMetadataProvider PROVIDER;
+
+    @BeforeAll
+    public static void beforeClass() throws IOException {
+        try (InputStream resource = InMemoryMetadataProviderTest.class.getResourceAsStream("metadata.json")) {
+            PROVIDER = InMemoryMetadataProvider.read(resource);
+        }
+    }
+
+    @Test
+    public void speciesAndVersionTest() {
+        Assertions.assertEquals(79, PROVIDER.getDBVersion());
+        Assertions.assertEquals("Homo sapiens", PROVIDER.getSpeciesName(48887L));
+        Assertions.assertNull(PROVIDER.getSpeciesName(1L));
+        Assertions.assertNull(PROVIDER.getSpeciesName(null));
+    }
+
+    @Test
+    public void pathwaysTest() {
+        final Map<String, PathwayMetadata> pathways = PROVIDER.getPathways(Arrays.asList("R-HSA-199418", "R-HSA-0000000"));
+        Assertions.assertEquals(Collections.singleton("R-HSA-199418"), pathways.keySet());
+        final PathwayMetadata pathway = pathways.get("R-HSA-199418");
+        Assertions.assertEquals("Negative regulation of the PI3K/AKT network", pathway.getDisplayName());
+        Assertions.assertEquals(Arrays.asList("plasma membrane", "cytosol"), pathway.getCompartments());
+        Assertions.assertEquals(1, pathway.getSummations().size());
+        Assertions.assertEquals(199425L, pathway.getSummations().get(0).getDbId());
+
+        final List<PublicationMetadata> references = pathway.getReferences();
+        Assertions.assertEquals(1, references.size());
+        Assertions.assertEquals(PublicationMetadata.LITERATURE_REFERENCE, references.get(0).getSchemaClass());
+        Assertions.assertEquals("1998", references.get(0).getYear());
+        Assertions.assertEquals("Maehama", references.get(0).getAuthors().get(0).getSurname());
+
+        Assertions.assertEquals("authored", pathway.getEdits().get(0).getType());
+        Assertions.assertEquals("Orlic-Milacic", pathway.getEdits().get(0).getAuthors().get(0).getSurname());
+    }
+
+    @Test
+    public void diagramsTest() {
+        final Map<String, DiagramMetadata> diagrams = PROVIDER.getDiagrams(Arrays.asList("R-HSA-199418", "R-HSA-1257604", "R-HSA-0000000"));
+        Assertions.assertEquals(2, diagrams.size());
+        Assertions.assertEquals("R-HSA-1257604", diagrams.get("R-HSA-199418").getDiagramStId());
+        Assertions.assertEquals(Collections.singletonList("R-HSA-199418"), diagrams.get("R-HSA-199418").getEvents());
+        Assertions.assertTrue(diagrams.get("R-HSA-1257604").getEvents().isEmpty());
+    }
+
+    @Test
+    public void writeAndReadTest() throws IOException {
+        final List<String> stIds = Arrays.asList("R-HSA-199418", "R-HSA-1257604");
+        final InMemoryMetadataProvider copy = InMemoryMetadataProvider.copyOf(PROVIDER, Collections.singletonList(48887L), stIds);
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        copy.write(os);
+        final InMemoryMetadataProvider read = InMemoryMetadataProvider.read(new ByteArrayInputStream(os.toByteArray()));
+        Assertions.assertEquals(PROVIDER.getDBVersion(), read.getDBVersion());
+        Assertions.assertEquals(PROVIDER.getSpeciesName(48887L), read.getSpeciesName(48887L));
+        Assertions.assertEquals(PROVIDER.getPathways(stIds).keySet(), read.getPathways(stIds).keySet());
+        Assertions.assertEquals(PROVIDER.getDiagrams(stIds).get("R-HSA-199418").getEvents(), read.getDiagrams(stIds).get("R-HSA-199418").getEvents());
+        Assertions.assertEquals(
+                PROVIDER.getPathways(stIds).get("R-HSA-199418").getReferences().get(0).getTitle(),
+                read.getPathways(stIds).get("R-HSA-199418").getReferences().get(0).getTitle());
+    }
+}
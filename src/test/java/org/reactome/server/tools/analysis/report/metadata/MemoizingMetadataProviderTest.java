@@ -0,0 +1,89 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MemoizingMetadataProviderTest {
+
+    @Test
+    public void lookupsTest() throws IOException {
+        final InMemoryMetadataProvider fixture;
+        try (InputStream resource = MemoizingMetadataProviderTest.class.getResourceAsStream("metadata.json")) {
+            fixture = InMemoryMetadataProvider.read(resource);
+        }
+        final List<Collection<String>> lookups = new ArrayList<>();
+        final MemoizingMetadataProvider provider = new MemoizingMetadataProvider(new InMemoryMetadataProvider(fixture.getDBVersion(),
+                Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()) {
+            @Override
+            public Map<String, PathwayMetadata> getPathways(Collection<String> stIds) {
+                lookups.add(new ArrayList<>(stIds));
+                return fixture.getPathways(stIds);
+            }
+        });
+        Assertions.assertEquals(Collections.singleton("R-HSA-199418"),
+                provider.getPathways(Arrays.asList("R-HSA-199418", "R-HSA-0000000")).keySet());
+        Assertions.assertEquals(new HashSet<>(Arrays.asList("R-HSA-199418", "R-HSA-1257604")),
+                provider.getPathways(Arrays.asList("R-HSA-199418", "R-HSA-0000000", "R-HSA-1257604")).keySet());
+        // found and missing stIds are looked up only once
+        Assertions.assertEquals(Arrays.asList(
+                Arrays.asList("R-HSA-199418", "R-HSA-0000000"),
+                Collections.singletonList("R-HSA-1257604")), lookups);
+        Assertions.assertNull(provider.getSpeciesName(null));
+    }
+
+    @Test
+    public void concurrentLookupsTest() throws Exception {
+        final InMemoryMetadataProvider fixture;
+        try (InputStream resource = MemoizingMetadataProviderTest.class.getResourceAsStream("metadata.json")) {
+            fixture = InMemoryMetadataProvider.read(resource);
+        }
+        final AtomicInteger lookups = new AtomicInteger();
+        final MemoizingMetadataProvider provider = new MemoizingMetadataProvider(new InMemoryMetadataProvider(fixture.getDBVersion(),
+                Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap()) {
+            @Override
+            public Map<String, PathwayMetadata> getPathways(Collection<String> stIds) {
+                lookups.incrementAndGet();
+                try {
+                    // long enough for the other threads to ask meanwhile
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return fixture.getPathways(stIds);
+            }
+        });
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<Map<String, PathwayMetadata>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return provider.getPathways(Arrays.asList("R-HSA-199418", "R-HSA-1257604"));
+                }));
+            }
+            start.countDown();
+            for (Future<Map<String, PathwayMetadata>> result : results)
+                Assertions.assertEquals(new HashSet<>(Arrays.asList("R-HSA-199418", "R-HSA-1257604")), result.get().keySet());
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(1, lookups.get());
+    }
+}
@@ -0,0 +1,76 @@
+package org.reactome.server.tools.analysis.report.metadata;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a snapshot from the in memory fixture and reads it back. Needs no
+ * external resources.
+ */
+public class SnapshotMetadataProviderTest {
+
+    private static final List<String> ST_IDS = Arrays.asList("R-HSA-199418", "R-HSA-1257604");
+
+    @Test
+    public void writeAndOpenTest(@TempDir Path folder) throws IOException {
+        final InMemoryMetadataProvider source;
+        try (InputStream resource = SnapshotMetadataProviderTest.class.getResourceAsStream("metadata.json")) {
+            source = InMemoryMetadataProvider.read(resource);
+        }
+        final Path file = folder.resolve("metadata-79.snapshot");
+        SnapshotMetadataProvider.write(file, source.getDBVersion(), Collections.singletonMap(48887L, "Homo sapiens"), ST_IDS, source);
+
+        final SnapshotMetadataProvider snapshot = SnapshotMetadataProvider.open(file);
+        Assertions.assertEquals(79, snapshot.getDBVersion());
+        Assertions.assertEquals("Homo sapiens", snapshot.getSpeciesName(48887L));
+        Assertions.assertNull(snapshot.getSpeciesName(1L));
+
+        final Map<String, PathwayMetadata> pathways = snapshot.getPathways(Arrays.asList("R-HSA-199418", "R-HSA-1257604", "R-HSA-0000000"));
+        Assertions.assertEquals(2, pathways.size());
+        final PathwayMetadata expected = source.getPathways(ST_IDS).get("R-HSA-199418");
+        final PathwayMetadata actual = pathways.get("R-HSA-199418");
+        Assertions.assertEquals(expected.getDisplayName(), actual.getDisplayName());
+        Assertions.assertEquals(expected.getCompartments(), actual.getCompartments());
+        Assertions.assertEquals(expected.getSummations().get(0).getDbId(), actual.getSummations().get(0).getDbId());
+        Assertions.assertEquals(expected.getSummations().get(0).getText(), actual.getSummations().get(0).getText());
+        Assertions.assertEquals(expected.getReferences().get(0).getTitle(), actual.getReferences().get(0).getTitle());
+        Assertions.assertEquals(expected.getReferences().get(0).getAuthors(), actual.getReferences().get(0).getAuthors());
+        Assertions.assertEquals(expected.getEdits().get(0).getDateTime(), actual.getEdits().get(0).getDateTime());
+
+        final Map<String, DiagramMetadata> diagrams = snapshot.getDiagrams(ST_IDS);
+        Assertions.assertEquals("R-HSA-1257604", diagrams.get("R-HSA-199418").getDiagramStId());
+        Assertions.assertEquals(Collections.singletonList("R-HSA-199418"), diagrams.get("R-HSA-199418").getEvents());
+        Assertions.assertTrue(diagrams.get("R-HSA-1257604").getEvents().isEmpty());
+    }
+
+    @Test
+    public void nullListsTest(@TempDir Path folder) throws IOException {
+        final PathwayMetadata pathway = new PathwayMetadata();
+        pathway.setStId("R-HSA-199418");
+        pathway.setDisplayName("Negative regulation of the PI3K/AKT network");
+        pathway.setCompartments(null);
+        pathway.setEdits(Collections.singletonList(new EditMetadata("authored", "2021-01-01", null)));
+        final InMemoryMetadataProvider source = new InMemoryMetadataProvider(79, Collections.emptyMap(),
+                Collections.singletonMap(pathway.getStId(), pathway), Collections.singletonMap(pathway.getStId(), new DiagramMetadata("R-HSA-1257604", null)));
+        final Path file = folder.resolve("metadata-79.snapshot");
+        SnapshotMetadataProvider.write(file, 79, Collections.emptyMap(), Collections.singletonList(pathway.getStId()), source);
+
+        final SnapshotMetadataProvider snapshot = SnapshotMetadataProvider.open(file);
+        final PathwayMetadata actual = snapshot.getPathways(Collections.singletonList(pathway.getStId())).get(pathway.getStId());
+        Assertions.assertEquals(pathway.getDisplayName(), actual.getDisplayName());
+        Assertions.assertNull(actual.getCompartments());
+        Assertions.assertEquals("authored", actual.getEdits().get(0).getType());
+        Assertions.assertEquals("2021-01-01", actual.getEdits().get(0).getDateTime());
+        Assertions.assertNull(actual.getEdits().get(0).getAuthors());
+        Assertions.assertNull(snapshot.getDiagrams(Collections.singletonList(pathway.getStId())).get(pathway.getStId()).getEvents());
+    }
+}
@@ -0,0 +1,72 @@
+package org.reactome.server.tools.analysis.report.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReportMonitorTest {
+
+    @Test
+    public void timerTest() throws IOException {
+        final List<String> events = new ArrayList<>();
+        final List<Measurement> measurements = new ArrayList<>();
+        final ReportMonitor monitor = new ReportMonitor(new ReportListener() {
+            @Override
+            public void reportStarted(String token) {
+                events.add("started " + token);
+            }
+
+            @Override
+            public void measured(Stage stage, String name, Measurement measurement) {
+                events.add(stage + " " + name);
+                measurements.add(measurement);
+            }
+
+            @Override
+            public void reportFinished(String token, Measurement measurement) {
+                events.add("finished " + token);
+                measurements.add(measurement);
+            }
+        }, null);
+        final ReportMonitor.Timer total = monitor.startReport("token");
+        final ReportMonitor.Timer lookup = monitor.start(ReportListener.Stage.METADATA, "dbVersion");
+        lookup.stop();
+        final OutputStream output = monitor.count(new ByteArrayOutputStream());
+        final ReportMonitor.Timer flush = monitor.start(ReportListener.Stage.FLUSH, "R-HSA-1");
+        output.write(new byte[10]);
+        flush.stop();
+        monitor.finish(total, "token");
+
+        Assertions.assertEquals(List.of("started token", "METADATA dbVersion", "FLUSH R-HSA-1", "finished token"), events);
+        Assertions.assertEquals(0, measurements.get(0).getOutputBytes());
+        Assertions.assertEquals(10, measurements.get(1).getOutputBytes());
+        Assertions.assertEquals(10, measurements.get(2).getOutputBytes());
+        for (Measurement measurement : measurements) Assertions.assertTrue(measurement.getNanos() >= 0);
+    }
+
+    @Test
+    public void failTest() {
+        final Throwable[] failure = new Throwable[1];
+        final ReportMonitor monitor = new ReportMonitor(new ReportListener() {
+            @Override
+            public void reportFailed(String token, Measurement measurement, Throwable cause) {
+                failure[0] = cause;
+            }
+        }, null);
+        final IllegalStateException cause = new IllegalStateException();
+        monitor.fail(monitor.startReport("token"), "token", cause);
+        Assertions.assertSame(cause, failure[0]);
+    }
+
+    @Test
+    public void noOpTest() {
+        final OutputStream stream = new ByteArrayOutputStream();
+        Assertions.assertSame(stream, ReportMonitor.NO_OP.count(stream));
+        ReportMonitor.NO_OP.start(ReportListener.Stage.SECTION, "CoverPage").stop();
+    }
+}
@@ -0,0 +1,48 @@
+package org.reactome.server.tools.analysis.report.metrics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+public class TimingSummaryListenerTest {
+
+    private static final long MILLIS = 1_000_000;
+
+    @Test
+    public void summaryTest() {
+        final TimingSummaryListener listener = new TimingSummaryListener(1, 2000);
+        listener.reportStarted("token");
+        listener.measured(ReportListener.Stage.SECTION, "CoverPage", new Measurement(5 * MILLIS, 100, 10));
+        listener.measured(ReportListener.Stage.PATHWAY, "R-HSA-1", new Measurement(3 * MILLIS, 0, 0));
+        listener.measured(ReportListener.Stage.PATHWAY, "R-HSA-2", new Measurement(2 * MILLIS, 0, 0));
+        // both pathways are drawn in diagram R-HSA-10
+        listener.measured(ReportListener.Stage.DIAGRAM_EXPORT, "R-HSA-10", new Measurement(2 * MILLIS, 0, 0));
+        listener.measured(ReportListener.Stage.DIAGRAM_INSERT, "R-HSA-10", new Measurement(MILLIS, 0, 0));
+        listener.measured(ReportListener.Stage.DIAGRAM_INSERT, "R-HSA-10", new Measurement(MILLIS, 0, 0));
+        Assertions.assertNull(listener.getSummary());
+        listener.reportFinished("token", new Measurement(20 * MILLIS, 1000, 500));
+
+        final Map<String, Object> summary = listener.getSummary();
+        Assertions.assertEquals("token", summary.get("token"));
+        Assertions.assertEquals("ok", summary.get("status"));
+        Assertions.assertEquals(20L, summary.get("millis"));
+        // diagram insertion is not part of the pathway
+        Assertions.assertEquals(Map.of("R-HSA-1", 3L), summary.get("slowestPathways"));
+        Assertions.assertEquals(Map.of("R-HSA-10", 4L), summary.get("slowestDiagrams"));
+        final Map<?, ?> stages = (Map<?, ?>) summary.get("stages");
+        final Map<?, ?> insert = (Map<?, ?>) stages.get("diagram_insert");
+        Assertions.assertEquals(2L, insert.get("count"));
+        Assertions.assertEquals(2L, insert.get("millis"));
+        final Map<?, ?> sections = (Map<?, ?>) summary.get("sections");
+        Assertions.assertEquals(5L, ((Map<?, ?>) sections.get("CoverPage")).get("millis"));
+    }
+
+    @Test
+    public void failedTest() {
+        final TimingSummaryListener listener = new TimingSummaryListener();
+        listener.reportFailed("token", new Measurement(MILLIS, -1, 0), new IllegalStateException());
+        Assertions.assertEquals("failed", listener.getSummary().get("status"));
+        Assertions.assertEquals(-1L, listener.getSummary().get("allocatedBytes"));
+    }
+}
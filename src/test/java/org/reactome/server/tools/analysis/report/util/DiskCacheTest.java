@@ -0,0 +1,62 @@
+package org.reactome.server.tools.analysis.report.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class DiskCacheTest {
+
+    @Test
+    public void evictionTest(@TempDir Path folder) throws IOException {
+        final DiskCache cache = new DiskCache(folder, 250);
+        cache.put("a", new byte[100]);
+        cache.put("b", new byte[100]);
+        Assertions.assertNotNull(cache.get("a"));
+        cache.put("c", new byte[100]);
+        // b is the least recently used
+        Assertions.assertNull(cache.get("b"));
+        Assertions.assertEquals(100, cache.get("a").length);
+        Assertions.assertEquals(100, cache.get("c").length);
+        Assertions.assertEquals(200, cache.getBytes());
+
+        cache.put("d", new byte[300]);
+        Assertions.assertNull(cache.get("d"));
+    }
+
+    @Test
+    public void reopenTest(@TempDir Path folder) throws IOException {
+        new DiskCache(folder, 1000).put("a", new byte[]{1, 2, 3});
+        final DiskCache cache = new DiskCache(folder, 1000);
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertArrayEquals(new byte[]{1, 2, 3}, cache.get("a"));
+    }
+
+    @Test
+    public void leftoverTest(@TempDir Path folder) throws IOException {
+        // written by a run that stopped before moving it into the cache
+        final Path leftover = new DiskCache(folder, 1000).createTempFile();
+        Files.write(leftover, new byte[]{1, 2, 3});
+        final DiskCache cache = new DiskCache(folder, 1000);
+        Assertions.assertFalse(Files.exists(leftover));
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void fileTest(@TempDir Path folder) throws IOException {
+        final DiskCache cache = new DiskCache(folder, 1000);
+        final Path file = cache.createTempFile();
+        Files.write(file, new byte[]{4, 5, 6});
+        cache.put("a", file);
+        Assertions.assertFalse(Files.exists(file));
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        Assertions.assertTrue(cache.copy("a", os));
+        Assertions.assertArrayEquals(new byte[]{4, 5, 6}, os.toByteArray());
+        Assertions.assertFalse(cache.copy("b", os));
+        Assertions.assertEquals(3, cache.getBytes());
+    }
+}
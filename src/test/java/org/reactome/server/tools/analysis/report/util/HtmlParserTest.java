@@ -0,0 +1,76 @@
+package org.reactome.server.tools.analysis.report.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Tests the span model produced by the tokenizer. Needs no external resources.
+ */
+public class HtmlParserTest {
+
+    @Test
+    public void paragraphsTest() {
+        final List<List<HtmlParser.Span>> paragraphs = HtmlParser.tokenize(" First <P>Second<br>  <br/>Third</p> ", true);
+        Assertions.assertEquals(3, paragraphs.size());
+        Assertions.assertEquals("First", paragraphs.get(0).get(0).text);
+        Assertions.assertEquals("Second", paragraphs.get(1).get(0).text);
+        Assertions.assertEquals("Third", paragraphs.get(2).get(0).text);
+    }
+
+    @Test
+    public void nestedTagsTest() {
+        final List<HtmlParser.Span> spans = HtmlParser.tokenize("A <b>bold <i>both</i></b> and H<sub>2</sub>O", true).get(0);
+        Assertions.assertEquals(6, spans.size());
+        Assertions.assertEquals("bold ", spans.get(1).text);
+        Assertions.assertTrue(spans.get(1).isBold());
+        Assertions.assertFalse(spans.get(1).isItalic());
+        Assertions.assertEquals("both", spans.get(2).text);
+        Assertions.assertTrue(spans.get(2).isBold());
+        Assertions.assertTrue(spans.get(2).isItalic());
+        Assertions.assertTrue(spans.get(4).isSub());
+        Assertions.assertEquals(0, spans.get(5).style);
+    }
+
+    @Test
+    public void linksTest() {
+        final List<HtmlParser.Span> spans = HtmlParser.tokenize("See <a target=\"_blank\" HREF=\"https://reactome.org\"><i>Reactome</i></a>.", true).get(0);
+        Assertions.assertEquals("Reactome", spans.get(1).text);
+        Assertions.assertEquals("https://reactome.org", spans.get(1).link);
+        Assertions.assertTrue(spans.get(1).isItalic());
+        Assertions.assertNull(spans.get(2).link);
+    }
+
+    @Test
+    public void unknownTagsTest() {
+        final List<HtmlParser.Span> spans = HtmlParser.tokenize("x < y and Ca<sup>2+</sup>", true).get(0);
+        Assertions.assertEquals(1, spans.size());
+        Assertions.assertEquals("x < y and Ca<sup>2+</sup>", spans.get(0).text);
+    }
+
+    @Test
+    public void notATagTest() {
+        final List<HtmlParser.Span> spans = HtmlParser.tokenize("a < b > c <b >bold</b>", true).get(0);
+        Assertions.assertEquals(2, spans.size());
+        Assertions.assertEquals("a < b > c ", spans.get(0).text);
+        Assertions.assertFalse(spans.get(0).isBold());
+        Assertions.assertEquals("bold", spans.get(1).text);
+        Assertions.assertTrue(spans.get(1).isBold());
+    }
+
+    @Test
+    public void whitespaceTest() {
+        // a single paragraph is kept as is
+        final List<HtmlParser.Span> spans = HtmlParser.tokenize("<b> </b><i>x</i> ", false).get(0);
+        Assertions.assertEquals(3, spans.size());
+        Assertions.assertEquals(" ", spans.get(0).text);
+        Assertions.assertTrue(spans.get(0).isBold());
+        Assertions.assertEquals(" ", spans.get(2).text);
+        // split paragraphs only lose the whitespace around the tags
+        final List<HtmlParser.Span> split = HtmlParser.tokenize("  <b> </b><i>x</i> <br>", true).get(0);
+        Assertions.assertEquals(2, split.size());
+        Assertions.assertEquals(" ", split.get(0).text);
+        Assertions.assertEquals("x", split.get(1).text);
+    }
+}
@@ -0,0 +1,66 @@
+package org.reactome.server.tools.analysis.report.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoadedFileCacheTest {
+
+    @Test
+    public void reloadTest(@TempDir Path folder) throws IOException {
+        final AtomicInteger loads = new AtomicInteger();
+        final LoadedFileCache<String> cache = new LoadedFileCache<>(1000, folder::resolve, key -> {
+            loads.incrementAndGet();
+            return read(folder.resolve(key));
+        });
+        Files.write(folder.resolve("a"), "first".getBytes());
+        Assertions.assertEquals("first", cache.get("a"));
+        Assertions.assertEquals("first", cache.get("a"));
+        Assertions.assertEquals(1, loads.get());
+
+        Files.write(folder.resolve("a"), "second".getBytes());
+        Files.setLastModifiedTime(folder.resolve("a"), FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        Assertions.assertEquals("second", cache.get("a"));
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals(6, cache.getBytes());
+    }
+
+    @Test
+    public void evictionTest(@TempDir Path folder) throws IOException {
+        final AtomicInteger loads = new AtomicInteger();
+        final LoadedFileCache<String> cache = new LoadedFileCache<>(250, folder::resolve, key -> {
+            loads.incrementAndGet();
+            return key;
+        });
+        for (String key : new String[]{"a", "b", "c"}) Files.write(folder.resolve(key), new byte[100]);
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        cache.get("c");
+        // b is the least recently used
+        Assertions.assertEquals(2, cache.size());
+        cache.get("a");
+        Assertions.assertEquals(3, loads.get());
+        cache.get("b");
+        Assertions.assertEquals(4, loads.get());
+
+        // no file, no cache
+        cache.get("d");
+        cache.get("d");
+        Assertions.assertEquals(6, loads.get());
+    }
+
+    private static String read(Path file) {
+        try {
+            return new String(Files.readAllBytes(file));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.reactome.server.tools.analysis.report.util;
+
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+public class PdfNormalizerTest {
+
+    @Test
+    public void sameBytesTest() throws IOException {
+        final Calendar date = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        date.setTimeInMillis(0);
+        final byte[] id = new byte[16];
+        final byte[] first = normalize(render(), id, date);
+        final byte[] second = normalize(render(), id, date);
+        Assertions.assertArrayEquals(first, second);
+    }
+
+    @Test
+    public void fileTest(@TempDir Path folder) throws IOException {
+        final Calendar date = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        date.setTimeInMillis(0);
+        final byte[] id = new byte[16];
+        final byte[] pdf = render();
+        final Path file = folder.resolve("report.pdf");
+        Files.write(file, pdf);
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        PdfNormalizer.normalize(file, os, id, date);
+        Assertions.assertArrayEquals(normalize(pdf, id, date), os.toByteArray());
+    }
+
+    private static byte[] normalize(byte[] pdf, byte[] id, Calendar date) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        PdfNormalizer.normalize(pdf, os, id, date);
+        return os.toByteArray();
+    }
+
+    /**
+     * A document with a subset font, whose prefix is random, a random id and
+     * the current time as dates.
+     */
+    private static byte[] render() throws IOException {
+        final byte[] font;
+        try (InputStream resource = PdfNormalizerTest.class.getResourceAsStream("/org/reactome/server/tools/analysis/report/style/SourceSerifPro-Regular.ttf")) {
+            font = IOUtils.toByteArray(resource);
+        }
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (Document document = new Document(new PdfDocument(new PdfWriter(os)))) {
+            document.setFont(PdfFontFactory.createFont(font, PdfEncodings.IDENTITY_H, PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED));
+            document.add(new Paragraph("Pathway Analysis Report"));
+        }
+        return os.toByteArray();
+    }
+}